@@ -0,0 +1,114 @@
+/**
+ * Animator.java
+ * @author Group J (Ryan Harding, Michael Pate, Adeline Reichert, Austin
+ *                  Stephen, and Ben Wilkin)
+ * Date: Oct 18, 2026
+ * Purpose: Runs every animation in the game (tile flashes and the like) off
+ *          one Swing timer, so effects always run on the event thread and
+ *          no threads are created per effect. The timer only runs while there
+ *          is something to animate.
+ *          Each effect is started under a key, usually the thing it animates.
+ *          Starting a new effect under a key that is still animating cancels
+ *          the old one first, so effects on the same tile never pile up.
+ */
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import javax.swing.Timer;
+
+public class Animator implements ActionListener
+{
+  // Roughly 60 frames a second
+  private static final int FRAME_MILLIS = 16;
+
+  public interface Effect
+  {
+    // Called once when the effect starts
+    void start();
+
+    // Called every frame with the milliseconds since the effect started.
+    // Returns false once the effect has finished.
+    boolean step(long elapsedMillis);
+
+    // Called if the effect is stopped before it finishes. Should put things
+    // back the way they were.
+    void cancel();
+  }
+
+  private Timer timer;
+  private HashMap<Object, Effect> effects = new HashMap<Object, Effect>();
+  private HashMap<Object, Long> startTimes = new HashMap<Object, Long>();
+  private ArrayList<Object> finished = new ArrayList<Object>();
+
+  public Animator()
+  {
+    timer = new Timer(FRAME_MILLIS, this);
+    timer.setCoalesce(true);
+  }
+
+  // Must be called on the event thread
+  public void start(Object key, Effect effect)
+  {
+    cancel(key);
+    effects.put(key, effect);
+    startTimes.put(key, System.nanoTime());
+    effect.start();
+    if(!timer.isRunning())
+    {
+      timer.start();
+    }
+  }
+
+  public void cancel(Object key)
+  {
+    Effect old = effects.remove(key);
+    startTimes.remove(key);
+    if(old != null)
+    {
+      old.cancel();
+    }
+  }
+
+  public void cancelAll()
+  {
+    for(Object key : new ArrayList<Object>(effects.keySet()))
+    {
+      cancel(key);
+    }
+  }
+
+  public boolean isAnimating(Object key)
+  {
+    return effects.containsKey(key);
+  }
+
+  // One frame of every running effect
+  @Override
+  public void actionPerformed(ActionEvent e)
+  {
+    long now = System.nanoTime();
+    for(Map.Entry<Object, Effect> entry : effects.entrySet())
+    {
+      long elapsedMillis = (now - startTimes.get(entry.getKey())) / 1000000;
+      if(!entry.getValue().step(elapsedMillis))
+      {
+        finished.add(entry.getKey());
+      }
+    }
+    for(Object key : finished)
+    {
+      effects.remove(key);
+      startTimes.remove(key);
+    }
+    finished.clear();
+
+    if(effects.isEmpty())
+    {
+      timer.stop();
+    }
+  }
+
+};
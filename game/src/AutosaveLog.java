@@ -0,0 +1,215 @@
+/**
+ * AutosaveLog.java
+ * @author Group J (Ryan Harding, Michael Pate, Adeline Reichert, Austin
+ *                  Stephen, and Ben Wilkin)
+ * Date: Oct 18, 2026
+ * Purpose: Autosaves a played game one move at a time. Each move is appended
+ *          to a sidecar file next to the maze file (the maze file's name with
+ *          LOG_SUFFIX added), so saving a move costs one small write however
+ *          big the maze is. Every so often GameWindow writes the whole game
+ *          back out to the maze file and starts the log again empty.
+ *          MZEReader replays the log when the maze file is loaded.
+ *          The log file is only made when the first move is appended, so
+ *          opening a log and never moving leaves nothing on disk.
+ *
+ *          The log starts with a header of HEADER_SIZE bytes:
+ *            magic (int), number of tiles (int), time in the maze file the
+ *            log follows on from (long, milliseconds)
+ *          and then one record of RECORD_SIZE bytes per move:
+ *            move (long, packed as in MoveJournal), time played once the
+ *            move was made (long, milliseconds)
+ *          A log whose header does not match the maze file belongs to an
+ *          older save and is ignored. A record cut short by a crash is
+ *          dropped, so a crash loses at most the move being written.
+ */
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+public class AutosaveLog
+{
+  public static final String LOG_SUFFIX = ".log";
+  public static final int LOG_MAGIC = 0xCAFE10C5;
+  public static final int HEADER_SIZE = 16;
+  public static final int RECORD_SIZE = 16;
+
+  private File mazeFile;
+  // Null until the log file is first written to
+  private FileChannel channel;
+  // Reused for every record, so appending allocates nothing
+  private ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+  private long numRecords;
+  // The header the log is started with when it is first written to
+  private int numTiles;
+  private long mazeTimeMillis;
+
+  // Opens the log of a maze file, carrying on from the records already in
+  // it if it follows on from the maze file as it is now, or starting it
+  // again empty if not. A log that is not there yet is left to be made by
+  // the first append.
+  public AutosaveLog(File mazeFile, int numTiles, long mazeTimeMillis)
+    throws IOException
+  {
+    this.mazeFile = mazeFile;
+    this.numTiles = numTiles;
+    this.mazeTimeMillis = mazeTimeMillis;
+    File log = logFile(mazeFile);
+    if(!log.isFile())
+    {
+      return;
+    }
+    channel = new RandomAccessFile(log, "rw").getChannel();
+    long size = channel.size();
+    if(size >= HEADER_SIZE && headerMatches(channel, numTiles,
+                                            mazeTimeMillis))
+    {
+      numRecords = (size - HEADER_SIZE) / RECORD_SIZE;
+      // Drop any record a crash cut short, so new ones line up
+      channel.truncate(HEADER_SIZE + numRecords * RECORD_SIZE);
+    }
+    else
+    {
+      restart(numTiles, mazeTimeMillis);
+    }
+  }
+
+  public static File logFile(File mazeFile)
+  {
+    return new File(mazeFile.getPath() + LOG_SUFFIX);
+  }
+
+  public File getMazeFile()
+  {
+    return mazeFile;
+  }
+
+  public long getNumRecords()
+  {
+    return numRecords;
+  }
+
+  // Adds a move to the end of the log
+  public void append(long move, long elapsedMillis) throws IOException
+  {
+    if(channel == null)
+    {
+      channel = new RandomAccessFile(logFile(mazeFile), "rw").getChannel();
+      writeHeader();
+    }
+    record.clear();
+    Converter.writeLong(record, 0, move);
+    Converter.writeLong(record, 8, elapsedMillis);
+    long position = HEADER_SIZE + numRecords * RECORD_SIZE;
+    while(record.hasRemaining())
+    {
+      position += channel.write(record, position);
+    }
+    numRecords++;
+  }
+
+  // Empties the log, once the maze file has been brought up to date
+  public void restart(int numTiles, long mazeTimeMillis) throws IOException
+  {
+    this.numTiles = numTiles;
+    this.mazeTimeMillis = mazeTimeMillis;
+    numRecords = 0;
+    if(channel != null)
+    {
+      writeHeader();
+    }
+  }
+
+  private void writeHeader() throws IOException
+  {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    Converter.writeInt(header, 0, LOG_MAGIC);
+    Converter.writeInt(header, 4, numTiles);
+    Converter.writeLong(header, 8, mazeTimeMillis);
+    channel.truncate(0);
+    long position = 0;
+    while(header.hasRemaining())
+    {
+      position += channel.write(header, position);
+    }
+  }
+
+  public void close()
+  {
+    if(channel == null)
+    {
+      return;
+    }
+    try
+    {
+      channel.close();
+    }
+    catch(IOException e)
+    {
+      // the records are already written, so there is nothing to lose
+    }
+  }
+
+  // Reads the whole records in the log of a maze file, two longs for each:
+  // the move, then the time played. Returns no records if there is no log,
+  // or if it does not follow on from the maze file as it is now.
+  public static long[] readRecords(String mazeName, int numTiles,
+                                   long mazeTimeMillis) throws IOException
+  {
+    File log = logFile(new File(mazeName));
+    if(!log.isFile())
+    {
+      return new long[0];
+    }
+    try (RandomAccessFile file = new RandomAccessFile(log, "r");
+         FileChannel in = file.getChannel())
+    {
+      long size = in.size();
+      if(size < HEADER_SIZE || !headerMatches(in, numTiles, mazeTimeMillis))
+      {
+        return new long[0];
+      }
+      int numRecords = (int)((size - HEADER_SIZE) / RECORD_SIZE);
+      ByteBuffer data = ByteBuffer.allocate(numRecords * RECORD_SIZE);
+      readFully(in, data, HEADER_SIZE);
+      long[] records = new long[numRecords * 2];
+      for(int i = 0; i < records.length; i++)
+      {
+        records[i] = Converter.readLong(data, i * 8);
+      }
+      return records;
+    }
+    catch(FileNotFoundException e)
+    {
+      return new long[0];
+    }
+  }
+
+  private static boolean headerMatches(FileChannel in, int numTiles,
+                                       long mazeTimeMillis) throws IOException
+  {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    readFully(in, header, 0);
+    return Converter.readInt(header, 0) == LOG_MAGIC &&
+           Converter.readInt(header, 4) == numTiles &&
+           Converter.readLong(header, 8) == mazeTimeMillis;
+  }
+
+  private static void readFully(FileChannel in, ByteBuffer data,
+                                long position) throws IOException
+  {
+    while(data.hasRemaining())
+    {
+      int read = in.read(data, position);
+      if(read < 0)
+      {
+        throw(new IOException("log ended early"));
+      }
+      position += read;
+    }
+  }
+
+};
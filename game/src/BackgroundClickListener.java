@@ -11,7 +11,6 @@ import java.awt.Color;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 
-import javax.swing.BorderFactory;
 
 public class BackgroundClickListener implements MouseListener
 {
@@ -31,12 +30,12 @@ public class BackgroundClickListener implements MouseListener
     // If the tile is an empty piece, turn on its border. 
     if(selectedFirst.isEmpty())
     {
-      selectedFirst.setBorder(BorderFactory.createLineBorder(Color.black));
+      selectedFirst.setBorderColor(Color.black);
     }
     // If the tile is a maze piece, turn off its border.
     else
     {
-      selectedFirst.setBorder(BorderFactory.createEmptyBorder());
+      selectedFirst.setBorderColor(null);
     }
     PanelClickListener.resetSelectedFirst();
   }
@@ -0,0 +1,237 @@
+/**
+ * BoardPanel.java
+ * @author Group J (Ryan Harding, Michael Pate, Adeline Reichert, Austin
+ *                  Stephen, and Ben Wilkin)
+ * Date: Oct 18, 2026
+ * Purpose: A single component that draws the whole board: the storage slots
+ *          down the left and right sides and the game field in the middle.
+ *          It works out where every slot goes itself, finds the slot under a
+ *          click with arithmetic, and only repaints the slots that change.
+ */
+
+import javax.swing.*;
+import java.awt.*;
+
+public class BoardPanel extends JPanel
+{
+  public static final long serialVersionUID=1;
+
+  // Tiles are never drawn bigger than the space their lines are given in
+  private static final int MAX_TILE_SIZE = (int)Tile.TILE_SPACE;
+  // Gap between storage tiles, as a fraction of the tile size
+  private static final double STORAGE_GAP = 0.06;
+
+  private int numTiles;
+  private Tile[] tiles;
+
+  // Layout, worked out again whenever the size of the panel changes
+  private int layoutWidth = -1;
+  private int layoutHeight = -1;
+  private int tileSize;
+  private int gap;
+  private int perSide;
+  private int storageRows;
+  private int storageCols;
+  private int fieldCols;
+  private int fieldRows;
+  private int leftX;
+  private int rightX;
+  private int storageY;
+  private int fieldX;
+  private int fieldY;
+
+  public BoardPanel(int numTiles)
+  {
+    super(null);
+    setBackground(Color.gray);
+    setNumTiles(numTiles);
+  }
+
+  // Replaces every slot with an empty one, for a maze with numTiles tiles
+  public void setNumTiles(int numTiles)
+  {
+    this.numTiles = numTiles;
+    tiles = new Tile[2 * numTiles];
+    for(int slot = 0; slot < tiles.length; slot++)
+    {
+      tiles[slot] = new Tile(this, slot);
+    }
+
+    computeGrid();
+    layoutWidth = -1;
+    setPreferredSize(new Dimension(
+                   (int)Math.ceil(widthInTiles() * MAX_TILE_SIZE),
+                   (int)Math.ceil(heightInTiles() * MAX_TILE_SIZE)));
+    revalidate();
+    repaint();
+  }
+
+  public Tile getTile(int slot)
+  {
+    return tiles[slot];
+  }
+
+  // Columns in the game field for a maze of numTiles tiles, which is as near
+  // to square as it can be
+  public static int fieldColumns(int numTiles)
+  {
+    return Math.max(1, (int)Math.ceil(Math.sqrt(numTiles)));
+  }
+
+  // How many rows and columns the storage and field are split into
+  private void computeGrid()
+  {
+    perSide = (numTiles + 1) / 2;
+    fieldCols = fieldColumns(numTiles);
+    fieldRows = Math.max(1, (numTiles + fieldCols - 1) / fieldCols);
+    // Each side is up to twice as tall as the field before it wraps into
+    // another column
+    storageRows = Math.max(1, Math.min(perSide, 2 * fieldRows));
+    storageCols = Math.max(1, (perSide + storageRows - 1) / storageRows);
+  }
+
+  // Each side holds its storage columns with half a tile of space either side
+  private double sideWidthInTiles()
+  {
+    return storageCols + (storageCols - 1) * STORAGE_GAP + 1;
+  }
+
+  private double widthInTiles()
+  {
+    return 2 * sideWidthInTiles() + fieldCols;
+  }
+
+  private double heightInTiles()
+  {
+    return Math.max(storageRows + (storageRows - 1) * STORAGE_GAP, fieldRows);
+  }
+
+  private void layoutSlots()
+  {
+    if(layoutWidth == getWidth() && layoutHeight == getHeight())
+    {
+      return;
+    }
+    layoutWidth = getWidth();
+    layoutHeight = getHeight();
+
+    double fit = Math.min(layoutWidth / widthInTiles(), 
+                          layoutHeight / heightInTiles());
+    tileSize = Math.max(1, Math.min(MAX_TILE_SIZE, (int)fit));
+    gap = (int)Math.round(tileSize * STORAGE_GAP);
+
+    int sideWidth = storageCols * tileSize + (storageCols - 1) * gap + 
+                    tileSize;
+    int storageHeight = storageRows * tileSize + (storageRows - 1) * gap;
+    int totalWidth = 2 * sideWidth + fieldCols * tileSize;
+    int totalHeight = Math.max(storageHeight, fieldRows * tileSize);
+
+    int originX = (layoutWidth - totalWidth) / 2;
+    int originY = (layoutHeight - totalHeight) / 2;
+    leftX = originX + tileSize / 2;
+    fieldX = originX + sideWidth;
+    rightX = fieldX + fieldCols * tileSize + tileSize / 2;
+    storageY = originY + (totalHeight - storageHeight) / 2;
+    fieldY = originY + (totalHeight - fieldRows * tileSize) / 2;
+  }
+
+  // Where a slot is drawn on the panel
+  public Rectangle getSlotBounds(int slot)
+  {
+    layoutSlots();
+    if(slot >= numTiles)
+    {
+      int index = slot - numTiles;
+      return new Rectangle(fieldX + (index % fieldCols) * tileSize,
+                           fieldY + (index / fieldCols) * tileSize,
+                           tileSize, tileSize);
+    }
+
+    int sideX = leftX;
+    int index = slot;
+    if(slot >= perSide)
+    {
+      sideX = rightX;
+      index = slot - perSide;
+    }
+    int pitch = tileSize + gap;
+    return new Rectangle(sideX + (index / storageRows) * pitch,
+                         storageY + (index % storageRows) * pitch,
+                         tileSize, tileSize);
+  }
+
+  // The slot under a point, or -1 if the point is on the background
+  public int slotAt(Point p)
+  {
+    layoutSlots();
+
+    // The game field
+    if(p.x >= fieldX && p.y >= fieldY)
+    {
+      int col = (p.x - fieldX) / tileSize;
+      int row = (p.y - fieldY) / tileSize;
+      if(col < fieldCols && row < fieldRows)
+      {
+        int index = row * fieldCols + col;
+        return (index < numTiles) ? numTiles + index : -1;
+      }
+    }
+
+    // Either of the storage sides
+    int first = 0;
+    int count = perSide;
+    int sideX = leftX;
+    if(p.x >= rightX)
+    {
+      first = perSide;
+      count = numTiles - perSide;
+      sideX = rightX;
+    }
+    int x = p.x - sideX;
+    int y = p.y - storageY;
+    int pitch = tileSize + gap;
+    if(x < 0 || y < 0 || x % pitch >= tileSize || y % pitch >= tileSize)
+    {
+      return -1;
+    }
+    int col = x / pitch;
+    int row = y / pitch;
+    int index = col * storageRows + row;
+    if(col >= storageCols || row >= storageRows || index >= count)
+    {
+      return -1;
+    }
+    return first + index;
+  }
+
+  public Tile tileAt(Point p)
+  {
+    int slot = slotAt(p);
+    return (slot == -1) ? null : tiles[slot];
+  }
+
+  public void repaintSlot(int slot)
+  {
+    repaint(getSlotBounds(slot));
+  }
+
+  @Override
+  public void paintComponent(Graphics g)
+  {
+    super.paintComponent(g);
+    layoutSlots();
+
+    // Only the slots inside the area being repainted are drawn
+    Graphics2D g2d = (Graphics2D)g;
+    Rectangle clip = g.getClipBounds();
+    for(int slot = 0; slot < tiles.length; slot++)
+    {
+      Rectangle bounds = getSlotBounds(slot);
+      if(clip == null || clip.intersects(bounds))
+      {
+        tiles[slot].paint(g2d, bounds);
+      }
+    }
+  }
+
+};
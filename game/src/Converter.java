@@ -4,25 +4,150 @@
  *                  Stephen, and Ben Wilkin)
  * Date: Apr 30, 2021
  * Purpose: Converts between byte arrays and ints, floats, and bytes.
- *          The methods came from:
- *            http://www.java2s.com/Book/Java/Examples/
- *            Convert_data_to_byte_array_back_and_forth.htm
+ *          The read and write methods work in place on a buffer the caller
+ *          owns, big-endian, at any offset and without allocating. The
+ *          convert methods are kept as thin wrappers around them.
+ *          Varints are the exception: they are read and written at the
+ *          buffer's position, since their length is not known up front.
  */
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 public class Converter
 {
+  // Most bytes a varint can take, for a long
+  public static final int MAX_VARINT_SIZE = 10;
+
+  private static final VarHandle INT_ARRAY =
+       MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+  private static final VarHandle FLOAT_ARRAY =
+     MethodHandles.byteArrayViewVarHandle(float[].class, ByteOrder.BIG_ENDIAN);
+  private static final VarHandle LONG_ARRAY =
+      MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+  // These ignore the buffer's own byte order and are always big-endian
+  private static final VarHandle SHORT_BUFFER =
+    MethodHandles.byteBufferViewVarHandle(short[].class, ByteOrder.BIG_ENDIAN);
+  private static final VarHandle INT_BUFFER =
+      MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+  private static final VarHandle FLOAT_BUFFER =
+    MethodHandles.byteBufferViewVarHandle(float[].class, ByteOrder.BIG_ENDIAN);
+  private static final VarHandle LONG_BUFFER =
+     MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+  public static int readInt(byte[] array, int offset)
+  {
+    return (int)INT_ARRAY.get(array, offset);
+  }
+
+  public static float readFloat(byte[] array, int offset)
+  {
+    return (float)FLOAT_ARRAY.get(array, offset);
+  }
+
+  public static long readLong(byte[] array, int offset)
+  {
+    return (long)LONG_ARRAY.get(array, offset);
+  }
+
+  public static void writeInt(byte[] array, int offset, int value)
+  {
+    INT_ARRAY.set(array, offset, value);
+  }
+
+  public static void writeFloat(byte[] array, int offset, float value)
+  {
+    FLOAT_ARRAY.set(array, offset, value);
+  }
+
+  public static void writeLong(byte[] array, int offset, long value)
+  {
+    LONG_ARRAY.set(array, offset, value);
+  }
+
+  public static int readInt(ByteBuffer buffer, int offset)
+  {
+    return (int)INT_BUFFER.get(buffer, offset);
+  }
+
+  public static float readFloat(ByteBuffer buffer, int offset)
+  {
+    return (float)FLOAT_BUFFER.get(buffer, offset);
+  }
+
+  public static long readLong(ByteBuffer buffer, int offset)
+  {
+    return (long)LONG_BUFFER.get(buffer, offset);
+  }
+
+  public static void writeInt(ByteBuffer buffer, int offset, int value)
+  {
+    INT_BUFFER.set(buffer, offset, value);
+  }
+
+  public static void writeFloat(ByteBuffer buffer, int offset, float value)
+  {
+    FLOAT_BUFFER.set(buffer, offset, value);
+  }
+
+  public static void writeLong(ByteBuffer buffer, int offset, long value)
+  {
+    LONG_BUFFER.set(buffer, offset, value);
+  }
+
+  public static short readShort(ByteBuffer buffer, int offset)
+  {
+    return (short)SHORT_BUFFER.get(buffer, offset);
+  }
+
+  public static void writeShort(ByteBuffer buffer, int offset, short value)
+  {
+    SHORT_BUFFER.set(buffer, offset, value);
+  }
+
+  // Writes value as an unsigned varint: seven bits to a byte, lowest bits
+  // first, with the top bit set on every byte but the last. Small numbers
+  // take a single byte.
+  public static void writeVarLong(ByteBuffer buffer, long value)
+  {
+    while((value & ~0x7FL) != 0)
+    {
+      buffer.put((byte)((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte)value);
+  }
+
+  // Reads an unsigned varint. Throws BufferUnderflowException if the buffer
+  // ends before the varint does, or if it runs on past MAX_VARINT_SIZE
+  // bytes, which no varint written by writeVarLong does.
+  public static long readVarLong(ByteBuffer buffer)
+  {
+    long value = 0;
+    for(int shift = 0; shift < 7 * MAX_VARINT_SIZE; shift += 7)
+    {
+      byte b = buffer.get();
+      value |= (long)(b & 0x7F) << shift;
+      if(b >= 0)
+      {
+        return value;
+      }
+    }
+    throw(new BufferUnderflowException());
+  }
+
   public static int convertToInt(byte[] array)
   {
-    ByteBuffer buffer = ByteBuffer.wrap(array);
-    return buffer.getInt();
+    return readInt(array, 0);
   }
 
   public static float convertToFloat(byte[] array)
   {
-    ByteBuffer buffer = ByteBuffer.wrap(array);
-    return buffer.getFloat();
+    return readFloat(array, 0);
   }
 
   public static byte convertToByte(byte[] array)
@@ -32,32 +157,28 @@ public class Converter
   
   public static long convertToLong(byte[] array)
   {
-    ByteBuffer buffer = ByteBuffer.wrap(array);
-    return buffer.getLong();
+    return readLong(array, 0);
   }
 
   public static byte[] convertToByteArray(int value)
   {
     byte[] bytes = new byte[4];
-    ByteBuffer buffer = ByteBuffer.allocate(bytes.length);
-    buffer.putInt(value);
-    return buffer.array();
+    writeInt(bytes, 0, value);
+    return bytes;
   }
 
   public static byte[] convertToByteArray(float value)
   {
     byte[] bytes = new byte[4];
-    ByteBuffer buffer = ByteBuffer.allocate(bytes.length);
-    buffer.putFloat(value);
-    return buffer.array();
+    writeFloat(bytes, 0, value);
+    return bytes;
   }
   
   public static byte[] convertToByteArray(long value) {
 
       byte[] bytes = new byte[8];
-      ByteBuffer buffer = ByteBuffer.allocate(bytes.length);
-      buffer.putLong(value);
-      return buffer.array();
+      writeLong(bytes, 0, value);
+      return bytes;
   }
 
 };
@@ -0,0 +1,191 @@
+/**
+ * EdgeIndex.java
+ * @author Group J (Ryan Harding, Michael Pate, Adeline Reichert, Austin
+ *                  Stephen, and Ben Wilkin)
+ * Date: Oct 18, 2026
+ * Purpose: The edge signature (see EdgeSignature) of every side of every tile
+ *          in every orientation, worked out once when a maze is loaded, so
+ *          the solver and anything else that asks "does this tile fit next
+ *          to that one?" never has to go back over the lines.
+ *          A (tile, orientation) pair is called a choice and numbered
+ *          tile*4+orientation. For each side the index also keeps an
+ *          inverted list from each signature to the choices that have it,
+ *          and can hand back the set of choices that fit against a side as
+ *          bits in a long array.
+ *          Two sides fit when their walls do not overlap (see EdgeSignature),
+ *          which every pair of neighbours in the shipped mazes passes, so the
+ *          index never turns down the real layout of a maze.
+ */
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class EdgeIndex
+{
+  private static final int[] NO_CHOICES = new int[0];
+
+  private int numTiles;
+  private int numChoices;
+  private int words;
+  // signatures[choice*4 + side]
+  private int[] signatures;
+  private SideIndex[] sides = new SideIndex[4];
+
+  // Everything kept for one side. The distinct signatures on it are numbered
+  // so the rest can be kept in plain arrays.
+  private class SideIndex
+  {
+    private Map<Integer, Integer> idOf = new HashMap<>();
+    private int[] signatureOfId;
+    private int[] idOfChoice = new int[numChoices];
+    // The inverted lists: the choices with each signature
+    private int[][] choicesOfId;
+    // The choices that fit against each signature, worked out the first
+    // time they are asked for
+    private AtomicReferenceArray<long[]> fitting;
+
+    SideIndex(int side)
+    {
+      List<List<Integer>> buckets = new ArrayList<>();
+      for(int choice = 0; choice < numChoices; choice++)
+      {
+        int signature = signatures[choice*4 + side];
+        Integer id = idOf.get(signature);
+        if(id == null)
+        {
+          id = buckets.size();
+          idOf.put(signature, id);
+          buckets.add(new ArrayList<>());
+        }
+        buckets.get(id).add(choice);
+        idOfChoice[choice] = id;
+      }
+
+      signatureOfId = new int[buckets.size()];
+      choicesOfId = new int[buckets.size()][];
+      for(Map.Entry<Integer, Integer> entry : idOf.entrySet())
+      {
+        int id = entry.getValue();
+        List<Integer> bucket = buckets.get(id);
+        signatureOfId[id] = entry.getKey();
+        choicesOfId[id] = new int[bucket.size()];
+        for(int i = 0; i < bucket.size(); i++)
+        {
+          choicesOfId[id][i] = bucket.get(i);
+        }
+      }
+      fitting = new AtomicReferenceArray<>(buckets.size());
+    }
+  };
+
+  public EdgeIndex(TileGeometry[] geometries)
+  {
+    numTiles = geometries.length;
+    numChoices = 4 * numTiles;
+    words = (numChoices + 63) / 64;
+    signatures = new int[numChoices * 4];
+    for(int choice = 0; choice < numChoices; choice++)
+    {
+      float[] coordinates = 
+        geometries[choice / 4].getCoordinates(choice % 4);
+      for(int side = 0; side < 4; side++)
+      {
+        signatures[choice*4 + side] = EdgeSignature.of(coordinates, side);
+      }
+    }
+    for(int side = 0; side < 4; side++)
+    {
+      sides[side] = new SideIndex(side);
+    }
+  }
+
+  public static int choice(int tile, int orientation)
+  {
+    return tile * 4 + orientation;
+  }
+
+  public int getNumTiles()
+  {
+    return numTiles;
+  }
+
+  public int getNumChoices()
+  {
+    return numChoices;
+  }
+
+  // Longs needed to hold a set of choices
+  public int getWords()
+  {
+    return words;
+  }
+
+  public int getSignature(int tile, int orientation, int side)
+  {
+    return signatures[choice(tile, orientation)*4 + side];
+  }
+
+  public int getSignature(int choice, int side)
+  {
+    return signatures[choice*4 + side];
+  }
+
+  // True if tile b turned orientationB can sit on the given side of tile a
+  // turned orientationA
+  public boolean fits(int tileA, int orientationA, int side, int tileB,
+                      int orientationB)
+  {
+    return EdgeSignature.fits(getSignature(tileA, orientationA, side),
+                              getSignature(tileB, orientationB,
+                                           EdgeSignature.opposite(side)));
+  }
+
+  // True if the given side of tile turned orientation can be on the outside
+  // of the field
+  public boolean isOutside(int tile, int orientation, int side)
+  {
+    return EdgeSignature.isOutside(getSignature(tile, orientation, side));
+  }
+
+  // The choices with exactly this signature on the given side. The array is
+  // shared and must not be changed.
+  public int[] getCandidates(int side, int signature)
+  {
+    Integer id = sides[side].idOf.get(signature);
+    return id == null ? NO_CHOICES : sides[side].choicesOfId[id];
+  }
+
+  // The choices that can sit on the given side of choice, as bits in a long
+  // array. The array is shared and must not be changed. Threads that ask for
+  // the same set at once may both build it, which is harmless.
+  public long[] getFitting(int choice, int side)
+  {
+    SideIndex index = sides[side];
+    int id = index.idOfChoice[choice];
+    long[] set = index.fitting.get(id);
+    if(set == null)
+    {
+      set = new long[words];
+      int signature = index.signatureOfId[id];
+      // one check per distinct signature on the facing side, then every
+      // choice with it goes in together
+      SideIndex facing = sides[EdgeSignature.opposite(side)];
+      for(int other = 0; other < facing.signatureOfId.length; other++)
+      {
+        if(EdgeSignature.fits(signature, facing.signatureOfId[other]))
+        {
+          for(int fit : facing.choicesOfId[other])
+          {
+            set[fit >>> 6] |= 1L << (fit & 63);
+          }
+        }
+      }
+      index.fitting.set(id, set);
+    }
+    return set;
+  }
+
+};
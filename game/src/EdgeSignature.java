@@ -0,0 +1,149 @@
+/**
+ * EdgeSignature.java
+ * @author Group J (Ryan Harding, Michael Pate, Adeline Reichert, Austin
+ *                  Stephen, and Ben Wilkin)
+ * Date: Oct 18, 2026
+ * Purpose: Works out where a tile's lines meet each of its four edges, packed
+ *          into one int per side, so two tiles can be checked against each
+ *          other with a couple of bit operations.
+ *          Each edge is cut into BINS places measured left to right (top and
+ *          bottom) or top to bottom (left and right), so facing edges of two
+ *          neighbours line up bit for bit. A side's signature holds two
+ *          masks:
+ *            ends - places where a line runs into the edge from inside the
+ *                   tile
+ *            wall - places covered by a wall drawn along the edge itself
+ *          The mazes are drawn on a grid, and a wall on the line between two
+ *          tiles is drawn by only one of them, along its own edge. So two
+ *          sides fit when their walls do not overlap. Nothing is asked of
+ *          the ends: in a hand drawn maze a wall can stop at a tile's edge
+ *          with nothing facing it on the neighbour, as several do in
+ *          default.mze.
+ *          A side on the outside of the maze is walled all along, but for at
+ *          most one gap no wider than a grid cell for the way in or out.
+ *          The corner places are left out because the outside walls of the
+ *          maze meet there on every tile.
+ */
+
+public final class EdgeSignature
+{
+  public static final int TOP = 0;
+  public static final int RIGHT = 1;
+  public static final int BOTTOM = 2;
+  public static final int LEFT = 3;
+
+  public static final int BINS = 16;
+  // How close to an edge a line's end has to be to count as touching it
+  private static final float EDGE_MARGIN = 2f;
+  // Every place but the two corners
+  private static final int INNER_MASK = ((1 << BINS) - 1) & ~1 & 
+                                        ~(1 << (BINS-1));
+  // Widest gap in an outside wall: the places strictly inside one grid
+  // cell, which is a quarter of the edge
+  private static final int MAX_GAP = BINS / 4;
+
+  private EdgeSignature()
+  {
+  }
+
+  // The side of the neighbour that a side faces
+  public static int opposite(int side)
+  {
+    return (side + 2) & 3;
+  }
+
+  public static int ends(int signature)
+  {
+    return signature & 0xFFFF;
+  }
+
+  public static int wall(int signature)
+  {
+    return signature >>> 16;
+  }
+
+  // True if a side with signature a can sit against a side with signature b
+  public static boolean fits(int a, int b)
+  {
+    return (wall(a) & wall(b)) == 0;
+  }
+
+  // True if a side with this signature can be on the outside of the maze
+  public static boolean isOutside(int signature)
+  {
+    int gap = ~wall(signature) & INNER_MASK;
+    // adding the lowest bit of a single run of bits clears the whole run
+    return (gap & (gap + (gap & -gap))) == 0 && 
+           Integer.bitCount(gap) <= MAX_GAP;
+  }
+
+  // The signatures of all four sides for one orientation's coordinates,
+  // indexed by TOP, RIGHT, BOTTOM and LEFT
+  public static int[] of(float[] coordinates)
+  {
+    int[] signatures = new int[4];
+    for(int side = 0; side < 4; side++)
+    {
+      signatures[side] = of(coordinates, side);
+    }
+    return signatures;
+  }
+
+  public static int of(float[] coordinates, int side)
+  {
+    int ends = 0;
+    int wall = 0;
+    for(int i = 0; i < coordinates.length / 4; i++)
+    {
+      int placeInList = i*4;
+      float x1 = coordinates[placeInList];
+      float y1 = coordinates[placeInList+1];
+      float x2 = coordinates[placeInList+2];
+      float y2 = coordinates[placeInList+3];
+      boolean firstOnEdge = distance(side, x1, y1) <= EDGE_MARGIN;
+      boolean secondOnEdge = distance(side, x2, y2) <= EDGE_MARGIN;
+      if(firstOnEdge && secondOnEdge)
+      {
+        // a wall drawn along the edge covers every place between its ends
+        int from = bin(position(side, x1, y1));
+        int to = bin(position(side, x2, y2));
+        for(int b = Math.min(from, to); b <= Math.max(from, to); b++)
+        {
+          wall |= 1 << b;
+        }
+      }
+      else if(firstOnEdge)
+      {
+        ends |= 1 << bin(position(side, x1, y1));
+      }
+      else if(secondOnEdge)
+      {
+        ends |= 1 << bin(position(side, x2, y2));
+      }
+    }
+    return ((wall & INNER_MASK) << 16) | (ends & INNER_MASK);
+  }
+
+  private static float distance(int side, float x, float y)
+  {
+    switch(side)
+    {
+      case TOP: return y;
+      case RIGHT: return Tile.TILE_SPACE - x;
+      case BOTTOM: return Tile.TILE_SPACE - y;
+      default: return x;
+    }
+  }
+
+  private static float position(int side, float x, float y)
+  {
+    return (side == TOP || side == BOTTOM) ? x : y;
+  }
+
+  private static int bin(float position)
+  {
+    int b = Math.round(position * (BINS - 1) / Tile.TILE_SPACE);
+    return Math.max(0, Math.min(BINS - 1, b));
+  }
+
+};
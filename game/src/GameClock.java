@@ -0,0 +1,62 @@
+/**
+ * GameClock.java
+ * @author Group J (Ryan Harding, Michael Pate, Adeline Reichert, Austin
+ *                  Stephen, and Ben Wilkin)
+ * Date: Oct 18, 2026
+ * Purpose: Keeps track of how long the current game has been played. Time is
+ *          measured from System.nanoTime rather than by counting timer ticks,
+ *          so it does not drift when the machine is busy and keeps the
+ *          fractions of a second across pauses. Safe to read from any thread.
+ */
+
+public class GameClock
+{
+  private static final long NANOS_PER_MILLI = 1000000;
+
+  // Time played before the clock was last started
+  private long bankedNanos = 0;
+  // When the clock was last started, only meaningful while running
+  private long startNanos = 0;
+  private boolean running = false;
+
+  public synchronized void resume()
+  {
+    if(!running)
+    {
+      startNanos = System.nanoTime();
+      running = true;
+    }
+  }
+
+  public synchronized void pause()
+  {
+    if(running)
+    {
+      bankedNanos += System.nanoTime() - startNanos;
+      running = false;
+    }
+  }
+
+  public synchronized boolean isRunning()
+  {
+    return running;
+  }
+
+  public synchronized long getElapsedMillis()
+  {
+    long elapsed = bankedNanos;
+    if(running)
+    {
+      elapsed += System.nanoTime() - startNanos;
+    }
+    return elapsed / NANOS_PER_MILLI;
+  }
+
+  // Sets the time played so far, leaving the clock running or paused
+  public synchronized void setElapsedMillis(long millis)
+  {
+    bankedNanos = millis * NANOS_PER_MILLI;
+    startNanos = System.nanoTime();
+  }
+
+};
@@ -0,0 +1,253 @@
+/**
+ * GameState.java
+ * @author Group J (Ryan Harding, Michael Pate, Adeline Reichert, Austin
+ *                  Stephen, and Ben Wilkin)
+ * Date: Oct 18, 2026
+ * Purpose: Holds the state of a game (which tile is in which slot and how it
+ *          is turned) in plain int arrays, with no Swing involved. GameWindow
+ *          and the Tile panels only display what is in here.
+ *
+ *          Slots are numbered the same way as tile locations in a played
+ *          file: 0 to N-1 are the storage slots down the sides and N to 2N-1
+ *          are the slots of the game field. A tile's number is its home, the
+ *          field slot it belongs in.
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class GameState
+{
+  public static final int EMPTY = -1;
+
+  private int numTiles;
+  // Tile in each slot, EMPTY if there is none
+  private int[] slotTile;
+  // Orientation of the tile in each slot, 0 to 3
+  private int[] slotOrientation;
+  // Slot each tile is in, so a tile can be found without a search
+  private int[] tileSlot;
+  // Number of field slots holding their own tile the right way up, kept up
+  // to date on every change so a win can be checked without a scan
+  private int correctSlots;
+  // Zobrist hash of the board: the xor of a key for every (tile, slot,
+  // orientation) on it, also kept up to date on every change
+  private long hash;
+  // Told about every change, so things like the hint engine can keep up
+  // without scanning the board
+  private List<Listener> listeners = new ArrayList<>();
+
+  public interface Listener
+  {
+    // What is in the slot, or how it is turned, has changed
+    void slotChanged(int slot);
+
+    // Every tile has been taken off the board
+    void cleared();
+  }
+
+  public GameState(int numTiles)
+  {
+    this.numTiles = numTiles;
+    slotTile = new int[2 * numTiles];
+    slotOrientation = new int[2 * numTiles];
+    tileSlot = new int[numTiles];
+    clear();
+  }
+
+  // The copy starts with no listeners
+  public GameState(GameState other)
+  {
+    numTiles = other.numTiles;
+    slotTile = other.slotTile.clone();
+    slotOrientation = other.slotOrientation.clone();
+    tileSlot = other.tileSlot.clone();
+    correctSlots = other.correctSlots;
+    hash = other.hash;
+  }
+
+  public void addListener(Listener listener)
+  {
+    listeners.add(listener);
+  }
+
+  public void removeListener(Listener listener)
+  {
+    listeners.remove(listener);
+  }
+
+  private void fireSlotChanged(int slot)
+  {
+    for(Listener listener : listeners)
+    {
+      listener.slotChanged(slot);
+    }
+  }
+
+  // Removes every tile from the board
+  public void clear()
+  {
+    Arrays.fill(slotTile, EMPTY);
+    Arrays.fill(slotOrientation, 0);
+    Arrays.fill(tileSlot, EMPTY);
+    correctSlots = 0;
+    hash = 0;
+    for(Listener listener : listeners)
+    {
+      listener.cleared();
+    }
+  }
+
+  public int getNumTiles()
+  {
+    return numTiles;
+  }
+
+  public int getNumSlots()
+  {
+    return slotTile.length;
+  }
+
+  public boolean isFieldSlot(int slot)
+  {
+    return slot >= numTiles;
+  }
+
+  // Slot number of the index'th slot of the game field
+  public int fieldSlot(int index)
+  {
+    return numTiles + index;
+  }
+
+  // Puts a tile into an empty slot
+  public void placeTile(int tile, int slot, int orientation)
+  {
+    slotTile[slot] = tile;
+    slotOrientation[slot] = orientation % 4;
+    tileSlot[tile] = slot;
+    correctSlots += correctness(slot);
+    hash ^= slotKey(slot);
+    fireSlotChanged(slot);
+  }
+
+  // 1 if the slot is a field slot holding its own tile the right way up,
+  // otherwise 0
+  private int correctness(int slot)
+  {
+    if(isFieldSlot(slot) && slotTile[slot] == slot - numTiles && 
+       slotOrientation[slot] == 0)
+    {
+      return 1;
+    }
+    return 0;
+  }
+
+  // Zobrist key of whatever is in a slot, 0 if it is empty. Keys are made by
+  // mixing the (tile, slot, orientation) triple rather than looked up in a
+  // table of random numbers, so they need no memory however big the board.
+  private long slotKey(int slot)
+  {
+    if(slotTile[slot] == EMPTY)
+    {
+      return 0;
+    }
+    long index = ((long)slotTile[slot] * slotTile.length + slot) * 4 + 
+                 slotOrientation[slot];
+    // SplitMix64 finaliser
+    long z = (index + 1) * 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  // Equal states always have equal hashes, and different states have equal
+  // hashes with a chance of about 1 in 2^64
+  public long getHash()
+  {
+    return hash;
+  }
+
+  public int getCorrectSlots()
+  {
+    return correctSlots;
+  }
+
+  public boolean isEmpty(int slot)
+  {
+    return slotTile[slot] == EMPTY;
+  }
+
+  public int getTile(int slot)
+  {
+    return slotTile[slot];
+  }
+
+  public int getOrientation(int slot)
+  {
+    return slotOrientation[slot];
+  }
+
+  public int getSlot(int tile)
+  {
+    return tileSlot[tile];
+  }
+
+  // A tile can only be moved into an empty slot
+  public boolean canMove(int from, int to)
+  {
+    return !isEmpty(from) && isEmpty(to);
+  }
+
+  // Swaps the contents of two slots, either of which may be empty
+  public void swap(int slotA, int slotB)
+  {
+    correctSlots -= correctness(slotA) + correctness(slotB);
+    hash ^= slotKey(slotA) ^ slotKey(slotB);
+
+    int tileA = slotTile[slotA];
+    int tileB = slotTile[slotB];
+    int orientationA = slotOrientation[slotA];
+
+    slotTile[slotA] = tileB;
+    slotOrientation[slotA] = slotOrientation[slotB];
+    slotTile[slotB] = tileA;
+    slotOrientation[slotB] = orientationA;
+
+    if(tileA != EMPTY)
+    {
+      tileSlot[tileA] = slotB;
+    }
+    if(tileB != EMPTY)
+    {
+      tileSlot[tileB] = slotA;
+    }
+
+    correctSlots += correctness(slotA) + correctness(slotB);
+    hash ^= slotKey(slotA) ^ slotKey(slotB);
+    fireSlotChanged(slotA);
+    fireSlotChanged(slotB);
+  }
+
+  // Turns the tile in a slot 90 degrees. Does nothing to an empty slot.
+  public void rotate(int slot)
+  {
+    if(isEmpty(slot))
+    {
+      return;
+    }
+    correctSlots -= correctness(slot);
+    hash ^= slotKey(slot);
+    slotOrientation[slot] = (slotOrientation[slot] + 1) % 4;
+    correctSlots += correctness(slot);
+    hash ^= slotKey(slot);
+    fireSlotChanged(slot);
+  }
+
+  // The game is won when every field slot holds its own tile the right way up
+  public boolean isSolved()
+  {
+    return correctSlots == numTiles;
+  }
+
+};
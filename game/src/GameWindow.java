@@ -13,25 +13,56 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.Random;
-import java.util.Timer;
+import java.util.concurrent.CancellationException;
 
 public class GameWindow extends JFrame implements ActionListener
 {
   public static final long serialVersionUID=1;
-  private Tile[] storagePanels;
-  private Tile[] fieldPanels;
+  // The clock is exact to the millisecond, this is only how often the time
+  // shown is brought up to date
+  private static final int CLOCK_REFRESH_MILLIS = 200;
+  // How often a load's progress bar is checked for its Cancel button
+  private static final int CANCEL_POLL_MILLIS = 100;
+  // Moves autosaved before the whole game is written back to its file
+  private static final int COMPACT_RECORDS = 1024;
+  // Slots picked out by a hint flash this colour
+  private static final Color HINT_COLOR = Color.green;
+  private BoardPanel board;
   private int[] tileStartingRotations;
-  private MZEReader reader;
+  // The maze as it was loaded, null until the first one is
+  private MazeModel model;
+  // The maze being loaded in the background, if any, and its progress bar
+  // if it is big enough to have one
+  private MazeLoader loader;
+  private ProgressMonitor loadProgress;
+  // Watches loadProgress for Cancel, since no progress is reported while
+  // the file is read or the edge index is built
+  private Timer cancelPoll;
+  // Models of recently loaded mazes, so opening one again is quick
+  private MazeCache mazeCache = new MazeCache();
+  private GameState state;
+  // Keeps up with the state so a hint never needs a scan of the board
+  private HintEngine hints;
+  // Every move made since the maze was laid out, for undo and redo
+  private MoveJournal journal = new MoveJournal();
+  // Autosaves moves on a played file, null when there is no file to save to
+  private AutosaveLog autosave;
+  // Hash of the state as it was last loaded or saved, to tell if the game
+  // has been changed
+  private long savedHash;
   private PanelClickListener mouseListener;
-  private long gameTimeSeconds;
   private Nav_Bar main_nav;
-  private Timer gameTimer = new Timer();
-  private gameTimerTask gameTimerHandler = new gameTimerTask(this);
-  private boolean timerRunning = true;
+  // Shared by every animation in the window
+  private Animator animator = new Animator();
+  private GameClock clock = new GameClock();
+  // Refreshes the time shown in the nav bar, on the event thread
+  private Timer clockDisplay;
 
   // Flags for changed games
   private boolean gameChanged;
@@ -79,19 +110,41 @@ public class GameWindow extends JFrame implements ActionListener
         return;
       }
       gameSaved = false;
+      // Reset never writes to the file, so autosave stops here. What was
+      // autosaved stays on disk and the board counts as changed from it
+      // until the game is saved again.
+      boolean wasAutosaving = autosave != null;
+      long diskHash = savedHash;
+      stopAutosave();
       // Reset the game board and start over.
-      if(reader.readFilePlacement(0) == -1)
+      if(!model.isPlayed())
       {
         setOriginalFileTiles();
-        gameTimeSeconds = 0;
+        setGameTime(0);
         this.startGameTimer();
       }
       else
       {
         setPlayedFileTiles();
-        gameTimeSeconds = reader.readFileTime();
+        setGameTime(model.getTimeMillis());
         this.startGameTimer();
       }
+      if(wasAutosaving)
+      {
+        savedHash = diskHash;
+      }
+    }
+    if("Hint".equals(e.getActionCommand()))
+    {
+      showHint();
+    }
+    if("Undo".equals(e.getActionCommand()))
+    {
+      undoMove();
+    }
+    if("Redo".equals(e.getActionCommand()))
+    {
+      redoMove();
     }
     if("File".equals(e.getActionCommand()))
     {
@@ -156,234 +209,232 @@ public class GameWindow extends JFrame implements ActionListener
   {
     BackgroundClickListener backListener = new BackgroundClickListener();
     addMouseListener(backListener);
-    tileStartingRotations = generateRotations();
+    // Both are sized to the maze once it has been read
+    state = new GameState(0);
+    hints = new HintEngine(state);
 
-    storagePanels = new Tile[16];
-    fieldPanels = new Tile[16];
-    for (int index = 0; index < 16; index++) 
-    {
-      storagePanels[index] = new Tile(new GridBagLayout(), mouseListener);
-      fieldPanels[index] = new Tile(new GridBagLayout(), mouseListener);
-    }
+    // The storage slots down both sides and the game field in the middle
+    // are all drawn by the one board component. Clicks between the slots
+    // count as clicks on the background.
+    mouseListener = new PanelClickListener(this);
+    board = new BoardPanel(0);
+    board.addMouseListener(mouseListener);
     
     main_nav = new Nav_Bar(this); // Navigation Bar Constructor
 
-    // Attempt to open default.mze
-    reader = null;
-    try {
-      File file = new File("../game/input/default.mze");
-      if (file.exists() == false) 
-        throw new FileNotFoundException(file.getAbsolutePath());
-      String p1 = file.getAbsolutePath();
-      reader = new MZEReader(p1, this);
-      reader.close();
-    }
-    catch (Exception e) {
-      String[] options = {"Open New File", "Exit"};
-      int choice = JOptionPane.showOptionDialog(this,
-                                          "The selected maze file is invalid.\n"
-                                                + "Choose a new file or exit.",
-                                                "Maze invalid!",
-                                                JOptionPane.YES_NO_OPTION,
-                                                JOptionPane.ERROR_MESSAGE,
-                                                null,
-                                                options,
-                                                options[0]);
-      if (choice == 1) 
+    // Start the clock display. The clock itself starts once a maze is in.
+    clockDisplay = new Timer(CLOCK_REFRESH_MILLIS, new ActionListener() {
+      public void actionPerformed(ActionEvent e)
       {
-        System.exit(0);
+        showGameTime();
       }
-      else if (choice == 0)
-      {
-        this.loadFile(true);
-      }
-    }
-    
-    // Start timer
-    gameTimeSeconds = reader.readFileTime();
-    main_nav.setVisibleTime(gameTimeSeconds);
-    gameTimer.schedule(gameTimerHandler, 0, 1000);
-    this.startGameTimer();
+    });
+    clockDisplay.start();
 
-    // Successfully opened default.mze!
-    // Tiles are named either 'Sxx' or 'Fxx', where 'xx' is a number.
-    // 'S' indicates it is a storage tile.
-    // 'F' indicates it is a field tile.
-    mouseListener = new PanelClickListener(this);
+    this.getContentPane().add(board, generateBoardConstraint());
 
-    JPanel leftSideBar = new JPanel(new GridBagLayout());
-    leftSideBar.setBackground(Color.gray);
-    leftSideBar.addMouseListener(backListener);
-    JPanel rightSideBar = new JPanel(new GridBagLayout());
-    rightSideBar.setBackground(Color.gray);
-    rightSideBar.addMouseListener(backListener);
+    // Attempt to open default.mze. It is read in the background, and the
+    // board stays empty until it is in.
+    blankFileState = true;
+    File file = new File("../game/input/default.mze");
+    startLoad(new MazeLoader(file.getAbsolutePath(), mazeCache,
+                             new LoadListener(true, true)));
+
+    return;
+  }
 
-    GridBagConstraints tileStorageConstraint =
-                                            generateSideBarInteriorConstraint();
+  // Picks up a maze once it has loaded in the background
+  private class LoadListener implements MazeLoader.Listener
+  {
+    private boolean mustLoadFile;
+    // Loading default.mze when the game starts
+    private boolean atStartup;
 
-    for (int index = 0; index < 8; index++) 
+    LoadListener(boolean mustLoadFile, boolean atStartup)
     {
-      storagePanels[index] = new Tile(new GridBagLayout(), mouseListener);
-      storagePanels[index].setName("S"+ Integer.toString(index));
-      int location = Tile.getRandomPlace(index);
-      storagePanels[index].setHome(location);
-      storagePanels[index].setLineCoordinateList(
-                                       reader.readFileCoordinateList(location));
-      leftSideBar.add(storagePanels[index], tileStorageConstraint);
-      tileStorageConstraint.gridy += 1;  
-      storagePanels[index].rotate90(tileStartingRotations[index]);
+      this.mustLoadFile = mustLoadFile;
+      this.atStartup = atStartup;
     }
-    tileStorageConstraint.gridy = 0;
-    for (int index = 8; index < 16; index++) 
+
+    public void loaded(MazeModel newModel)
     {
-      storagePanels[index] = new Tile(new GridBagLayout(), mouseListener);
-      storagePanels[index].setName("S"+ Integer.toString(index));
-      int location = Tile.getRandomPlace(index);
-      storagePanels[index].setHome(location);
-      storagePanels[index].setLineCoordinateList(
-                                       reader.readFileCoordinateList(location));
-      rightSideBar.add(storagePanels[index], tileStorageConstraint);
-      tileStorageConstraint.gridy += 1;
-      storagePanels[index].rotate90(tileStartingRotations[index]);
+      // A load can finish before the poll sees Cancel pressed, so the model
+      // is dropped here too
+      if(loadProgress != null && loadProgress.isCanceled())
+      {
+        failed(new CancellationException());
+        return;
+      }
+      endLoad();
+      showLoaded(newModel);
     }
 
-    ////////////////////////////////////////////////////////////////////////
-
-    // Generate the play area
-    GridBagConstraints tileFieldConstraint = generateGameFieldConstraint(); 
-
-    int x = 0;
-    int y = 0;
-    for (int index = 0; index < 16; index++) 
+    public void failed(Exception e)
     {
-      if (y > 2) 
+      endLoad();
+      if(atStartup)
       {
-        y = 0;
-        // Each side bar is 874px tall.
-        // The center point then is 437px down from the top.
-        // The game field is 400px tall, so
-        // 400px / 2 = 200px to offset to
-        // the center of the game field. 437px - 200px = 237px, this centers
-        // the game field along the height of the side bars.
-        tileFieldConstraint.insets = new Insets(237, 0, 0, 0);
-        x++;
-      } 
-      else
+        startupFailed();
+      }
+      else if(e instanceof CancellationException)
       {
-        y++;
-        // We only want to adjust the external padding for the top
-        // row of game field spaces, so everyone else has zero padding.
-        tileFieldConstraint.insets = new Insets(0, 0, 0, 0);
+        if(mustLoadFile)
+        {
+          loadFile(true);
+        }
       }
-      if (x > 3) 
+      else if(!showLoadError(e, mustLoadFile))
       {
-        x = 0;
+        // Back to the file chooser
+        loadFile(mustLoadFile);
       }
-
-      tileFieldConstraint.gridx = x + 2;
-      tileFieldConstraint.gridy = y + 4;		
-      fieldPanels[index] = new Tile(new GridBagLayout(), mouseListener);
-      fieldPanels[index].setName("F" + Integer.toString(index));
-      fieldPanels[index].setEmpty(true);
-      fieldPanels[index].setBorder(BorderFactory.createLineBorder(Color.black));
-      this.getContentPane().add(fieldPanels[index], tileFieldConstraint);
     }
+  };
 
-    leftSideBar.setPreferredSize(new Dimension(200, 850));
-    rightSideBar.setPreferredSize(new Dimension(200, 850));
-    this.getContentPane().add(leftSideBar, generateLeftSideBarConstraint());
-    this.getContentPane().add(rightSideBar, generateRightSideBarConstraint());
-
-    fixFieldPlacement();
-
-    if(reader.readFilePlacement(0) != -1)
+  // default.mze could not be read
+  private void startupFailed()
+  {
+    String[] options = {"Open New File", "Exit"};
+    int choice = JOptionPane.showOptionDialog(this,
+                                        "The selected maze file is invalid.\n"
+                                              + "Choose a new file or exit.",
+                                              "Maze invalid!",
+                                              JOptionPane.YES_NO_OPTION,
+                                              JOptionPane.ERROR_MESSAGE,
+                                              null,
+                                              options,
+                                              options[0]);
+    if (choice == 1) 
     {
-      setPlayedFileTiles();
+      System.exit(0);
+    }
+    else if (choice == 0)
+    {
+      this.loadFile(true);
     }
-
-    return;
   }
 
-  private GridBagConstraints generateGameFieldConstraint()
+  // Starts a maze loading in the background, with a progress bar that can
+  // cancel it if the maze is big or comes out of a pack
+  private void startLoad(MazeLoader newLoader)
   {
-    GridBagConstraints constraint = new GridBagConstraints();
-    Insets centerInset = new Insets(0,0,0,0);
-    constraint.insets = centerInset;
-    constraint.fill = GridBagConstraints.BOTH;
-    constraint.anchor = GridBagConstraints.CENTER;
-    constraint.ipadx = 0;
-    constraint.ipady = 0;
-    return constraint;
+    loader = newLoader;
+    if(loader.isLarge())
+    {
+      loadProgress = new ProgressMonitor(this, "Loading maze", 
+                                         loader.getName(), 0, 100);
+      loadProgress.setMillisToDecideToPopup(0);
+      loadProgress.setMillisToPopup(0);
+      loadProgress.setProgress(0);
+      loader.addPropertyChangeListener(new PropertyChangeListener() {
+        public void propertyChange(PropertyChangeEvent e)
+        {
+          if(loadProgress != null && 
+             "progress".equals(e.getPropertyName()))
+          {
+            loadProgress.setProgress((Integer)e.getNewValue());
+          }
+        }
+      });
+      cancelPoll = new Timer(CANCEL_POLL_MILLIS, new ActionListener() {
+        public void actionPerformed(ActionEvent e)
+        {
+          if(loader != null && loadProgress != null && 
+             loadProgress.isCanceled())
+          {
+            loader.cancel(true);
+          }
+        }
+      });
+      cancelPoll.start();
+    }
+    loader.execute();
   }
 
-  private GridBagConstraints generateLeftSideBarConstraint()
+  private void endLoad()
   {
-    GridBagConstraints constraint = new GridBagConstraints();
-    Insets centerInset = new Insets(10,10,10,10);
-    constraint.insets = centerInset;
-    constraint.fill = GridBagConstraints.BOTH;
-    constraint.anchor = GridBagConstraints.CENTER;
-    constraint.ipadx = 0;
-    constraint.ipady = 0;
-    constraint.gridy = 1;
-    constraint.gridx = 0;
-    constraint.gridheight = 8;
-    constraint.gridwidth = 1;
-    return constraint;
+    loader = null;
+    if(cancelPoll != null)
+    {
+      cancelPoll.stop();
+      cancelPoll = null;
+    }
+    if(loadProgress != null)
+    {
+      loadProgress.close();
+      loadProgress = null;
+    }
   }
 
-  private GridBagConstraints generateRightSideBarConstraint()
+  // Lays out a maze that has just been loaded and starts the clock
+  private void showLoaded(MazeModel newModel)
   {
-    GridBagConstraints constraint = new GridBagConstraints();
-    Insets centerInset = new Insets(10,10,10,10);
-    constraint.insets = centerInset;
-    constraint.fill = GridBagConstraints.BOTH;
-    constraint.anchor = GridBagConstraints.CENTER;
-    constraint.ipadx = 0;
-    constraint.ipady = 0;
-    constraint.gridy = 1;
-    constraint.gridx = 6;
-    constraint.gridheight = 8;
-    constraint.gridwidth = 1;
-    return constraint;
+    setModel(newModel);
+
+    // If reading in an original file
+    if(!model.isPlayed())
+    {
+      // Generate random placement and rotation
+      newStartingPosition();
+      // Load in the corresponding maze with the new random positions 
+      // and new random rotations
+      setOriginalFileTiles();
+    }
+
+    // If reading in a played game
+    else
+    {
+      setPlayedFileTiles();
+    }
+
+    blankFileState = false;
+    
+    setGameTime(model.getTimeMillis());
+    this.startGameTimer();
   }
 
-  private GridBagConstraints generateSideBarInteriorConstraint()
+  private GridBagConstraints generateBoardConstraint()
   {
     GridBagConstraints constraint = new GridBagConstraints();
-    Insets centerInset = new Insets(6,0,0,0);
+    Insets centerInset = new Insets(0,10,10,10);
     constraint.insets = centerInset;
     constraint.fill = GridBagConstraints.BOTH;
     constraint.anchor = GridBagConstraints.CENTER;
-    constraint.ipadx = 0;
-    constraint.ipady = 0;
+    constraint.weightx = 1.0;
+    constraint.weighty = 1.0;
     constraint.gridx = 0;
-    constraint.gridy = 0;
+    constraint.gridy = 1;
+    constraint.gridwidth = 8;
     return constraint;
   }
 
-  private int[] generateRotations()
+  private int[] generateRotations(int numTiles)
   {
-    int[] positionList = new int[16];
+    int[] positionList = new int[numTiles];
+    // No more than a quarter of the tiles may start the right way up, and
+    // there must be at least one of each other rotation if there are enough
+    // tiles for that
+    int zeroLimit = Math.max(1, numTiles / 4);
+    boolean needAll = numTiles >= 4;
     boolean valid = false; // checks if a random assignment meets conditions
 
     // Can only stop generating lists of rotations when they meet req.
     while(!valid)
     {
-      // Creating an array of 16 rotations
+      // Creating an array of numTiles rotations
       int is_0_limit = 0; // tracks how many 0 rotations
       boolean contains1 = false; // at least 1
       boolean contains2 = false; // at least 1
       boolean contains3 = false; // at least 1
 
       // Generate list
-      for(int i=0; i< 16; i++)
+      for(int i=0; i< numTiles; i++)
       {
         Random rand = new Random();
         int rand_int;
 
-        // generates rotations from 1-3 if 4 have been given a 0 rotation
-        if(is_0_limit == 4) 
+        // generates rotations from 1-3 once the limit of 0 rotations is hit
+        if(is_0_limit == zeroLimit) 
         {
           rand_int = rand.nextInt(3);//0-2
           rand_int = rand_int+1; // shifts range from 0-2 to 1-3
@@ -414,7 +465,8 @@ public class GameWindow extends JFrame implements ActionListener
       }
 
       // testing if list generated met all of the constraints
-      if( (is_0_limit > 0) && contains1 && contains2 && contains3)
+      if(!needAll || 
+         ((is_0_limit > 0) && contains1 && contains2 && contains3))
       {
         valid = true; // met constraints now exiting
       }
@@ -422,26 +474,6 @@ public class GameWindow extends JFrame implements ActionListener
     return positionList;       
   }
 
-  // GridBag scrambles the order of our tiles when it makes them visible.
-  // This puts them in the right order in fieldPanels[].
-  private void fixFieldPlacement()
-  {
-    Tile[] tmp = {fieldPanels[15], fieldPanels[3],  fieldPanels[7],
-                  fieldPanels[11], fieldPanels[0],  fieldPanels[4],
-                  fieldPanels[8],  fieldPanels[12], fieldPanels[1],
-                  fieldPanels[5],  fieldPanels[9],  fieldPanels[13],
-                  fieldPanels[2],  fieldPanels[6],  fieldPanels[10],
-                  fieldPanels[14]
-                 };
-
-    fieldPanels = tmp;
-
-    for(int i = 0; i < 16; i++)
-    {
-      fieldPanels[i].setName("F" + Integer.toString(i));
-    }
-  }
-
   //////////////////////////////////////////////////////////////////////////////
   // Methods needed to help with various popups/UI features:
 
@@ -480,79 +512,8 @@ public class GameWindow extends JFrame implements ActionListener
 
   private boolean checkForChanges()
   {
-    // If the file is an original
-    if(reader.readFilePlacement(0) == -1)
-    {    
-      for(int i = 0; i < 16; i++)
-      {
-        if(storagePanels[i].isEmpty())
-        {
-          return true;
-        }
-        // Check if the current maze piece number in each storage panel matches
-        // its corresponding random initial maze piece number
-        if(storagePanels[i].getHome() != Tile.getRandomPlace(i))
-        {
-          return true;
-        }
-        // Check if the current maze piece orientation matches its corresponding
-        // random initial rotation
-        if(storagePanels[i].getOrientation() != tileStartingRotations[i])
-        {
-          return true;
-        }
-      }
-    }
-    // If the file has been played
-    else
-    {
-      int location = -1;
-      for(int i = 0; i < 16; i++)
-      {
-        location = reader.readFilePlacement(i);
-        if(location < 16)
-        {
-          if(storagePanels[location].isEmpty())
-          {
-            return true;
-          }
-          // Check if the current maze piece number in the storage panel matches
-          // its file location
-          if(storagePanels[location].getHome() != location)
-          {
-            return true;
-          }
-          // Check if the current maze piece orientation matches its
-          // corresponding file load orientation
-          if(storagePanels[location].getOrientation() != 
-                                                     reader.readFileRotation(i))
-          {
-            return true;
-          }
-        }
-        else
-        {
-          if(fieldPanels[location - 16].isEmpty())
-          {
-            return true;
-          }
-          // Check if the current maze piece number in the field panel matches
-          // its file location
-          if(fieldPanels[location - 16].getHome() != (location - 16))
-          {
-            return true;
-          }
-          // Check if the current maze piece orientation matches its
-          // corresponding file load orientation
-          if(fieldPanels[location - 16].getOrientation() != 
-                                                     reader.readFileRotation(i))
-          {
-            return true;
-          }
-        }
-      }
-    }
-    return false;
+    // Compare against the tiles as they were when last loaded or saved
+    return state.getHash() != savedHash;
   }
 
   public void setGameAsChanged()
@@ -562,26 +523,7 @@ public class GameWindow extends JFrame implements ActionListener
 
   private boolean checkWin()
   {
-    boolean win = true;
-    for(int index = 0; index < 16; index++)
-    {
-      if(fieldPanels[index].isEmpty())
-      {
-        win = false;
-      }
-      else
-      {
-        if(fieldPanels[index].getHome() != index)
-        {
-          win = false;
-        }
-      }
-      if(fieldPanels[index].getOrientation() != 0)
-      {
-        win = false;
-      }
-    }
-    return win;
+    return state.isSolved();
   }
 
   public void winPopup()
@@ -589,27 +531,96 @@ public class GameWindow extends JFrame implements ActionListener
     // If the user has won the game...
     if(checkWin())
     {
-      long hours = gameTimeSeconds / 60;
-      long minutes = hours % 60;
-      long seconds = gameTimeSeconds % 60;
-      hours = hours / 60;
-      
-      String hoursText = 
-          (hours<10)?"0"+Long.toString(hours):Long.toString(hours);
-      String minutesText = 
-          (minutes<10)?"0"+Long.toString(minutes):Long.toString(minutes);
-      String secondsText = 
-          (seconds<10)?"0"+Long.toString(seconds):Long.toString(seconds);
-      
       this.stopGameTimer();
       JOptionPane.showMessageDialog(this,
-                                    "You have won!\nTime: " + hoursText + ":" +
-                                    minutesText + ":" + secondsText,
+                                    "You have won!\nTime: " + 
+                         Nav_Bar.formatTime(clock.getElapsedMillis() / 1000),
                                     "Congratulations!",
                                     JOptionPane.INFORMATION_MESSAGE);
     }
   }
 
+  private void undoMove()
+  {
+    if(blankFileState)
+    {
+      return;
+    }
+    long move = journal.undo();
+    if(move != MoveJournal.NO_MOVE)
+    {
+      applyMove(move, true);
+    }
+  }
+
+  private void redoMove()
+  {
+    if(blankFileState)
+    {
+      return;
+    }
+    long move = journal.redo();
+    if(move != MoveJournal.NO_MOVE)
+    {
+      applyMove(move, false);
+    }
+  }
+
+  // Makes a move from the journal again, or takes it back. A swap is its
+  // own reverse, and a turn is taken back by turning the rest of the way.
+  private void applyMove(long move, boolean reverse)
+  {
+    // Drop any half made move, clearing its highlight
+    Tile selected = PanelClickListener.getSelectedFirst();
+    PanelClickListener.resetSelectedFirst();
+    if(selected != null)
+    {
+      showSlot(selected.getSlot());
+    }
+    int slotA = MoveJournal.getSlotA(move);
+    int slotB = MoveJournal.getSlotB(move);
+    if(slotA != slotB)
+    {
+      state.swap(slotA, slotB);
+      showSlot(slotB);
+    }
+    int turns = MoveJournal.getRotationDelta(move);
+    if(reverse)
+    {
+      turns = (4 - turns) % 4;
+    }
+    for(int i = 0; i < turns; i++)
+    {
+      state.rotate(slotA);
+    }
+    showSlot(slotA);
+    logMove(MoveJournal.pack(slotA, slotB, turns));
+    setGameAsChanged();
+    winPopup();
+  }
+
+  // Flashes the slots of the best next move: the tile to move and the slot
+  // to move it to, or just the tile to turn
+  private void showHint()
+  {
+    if(blankFileState)
+    {
+      return;
+    }
+    HintEngine.Hint hint = hints.getHint();
+    if(hint == null)
+    {
+      return;
+    }
+    Tile from = slotPanel(hint.getFromSlot());
+    animator.start(from, new TileFlasher(from, HINT_COLOR));
+    if(!hint.isRotate())
+    {
+      Tile to = slotPanel(hint.getToSlot());
+      animator.start(to, new TileFlasher(to, HINT_COLOR));
+    }
+  }
+
   //////////////////////////////////////////////////////////////////////////////
   // Load Game Capability:
 
@@ -620,6 +631,11 @@ public class GameWindow extends JFrame implements ActionListener
   // the load.
   private void loadFile(boolean mustLoadFile)
   {
+    // Only one maze loads at a time
+    if(loader != null)
+    {
+      return;
+    }
     boolean valid = false;
     while (valid == false)
     {
@@ -631,6 +647,7 @@ public class GameWindow extends JFrame implements ActionListener
         loadGameChooser.setDialogTitle("Select an aMaze File to Load");
         loadGameChooser.setFileSelectionMode(JFileChooser.FILES_ONLY);
         loadGameChooser.setApproveButtonText("Load");
+        loadGameChooser.setAccessory(new MZEPreview(loadGameChooser));
         int userOption = loadGameChooser.showOpenDialog(this);
         if (userOption == JFileChooser.APPROVE_OPTION)
         {
@@ -638,8 +655,22 @@ public class GameWindow extends JFrame implements ActionListener
           if (desiredLocation.exists() == false) 
             throw new FileNotFoundException(desiredLocation.getAbsolutePath());
           String p1 = desiredLocation.getAbsolutePath();
-          reader = new MZEReader(p1, this);
-          reader.close();
+          // The maze is read in the background and laid out once it is in
+          LoadListener listener = new LoadListener(mustLoadFile, false);
+          if(MZEPack.isPack(desiredLocation))
+          {
+            // Back to the file chooser if no maze is picked
+            MazeLoader packed = loaderFromPack(MZEPack.open(p1), listener);
+            if(packed == null)
+            {
+              continue;
+            }
+            startLoad(packed);
+          }
+          else
+          {
+            startLoad(new MazeLoader(p1, mazeCache, listener));
+          }
           valid = true;
         }
         else if (userOption == JFileChooser.CANCEL_OPTION && mustLoadFile)
@@ -664,146 +695,332 @@ public class GameWindow extends JFrame implements ActionListener
           return;
         }
       }
-      catch (InvalidMazeFileException e1)
+      catch (Exception e)
       {
-        JOptionPane.showMessageDialog(this, 
-                              "File format is not correct!",
-                                      "Maze file format invalid.",
-                                      JOptionPane.ERROR_MESSAGE);
-        if(!mustLoadFile)
+        if(showLoadError(e, mustLoadFile))
         {
-          setEmptyTiles();
-          blankFileState = true;
-          gameTimeSeconds = 0;
-          main_nav.setVisibleTime(gameTimeSeconds);
-          this.stopGameTimer();
           return;
         }
       }
-      catch (FileNotFoundException e2)
+    }
+  }
+
+  // Tells the player why a maze could not be loaded. Returns true if the
+  // board has been left empty and there is nothing more to do, or false if
+  // the player should be asked for another file.
+  private boolean showLoadError(Exception e, boolean mustLoadFile)
+  {
+    if(e instanceof InvalidMazeFileException)
+    {
+      JOptionPane.showMessageDialog(this, 
+                            "File format is not correct!",
+                                    "Maze file format invalid.",
+                                    JOptionPane.ERROR_MESSAGE);
+      if(!mustLoadFile)
       {
-        JOptionPane.showMessageDialog(this, 
-                                      "Unable to find the selected file"
-                        + "!\n"+ "Click \'OK\' to choose a new file or cancel.",
-                                      "File not found.",
-                                      JOptionPane.ERROR_MESSAGE);
+        setEmptyTiles();
+        blankFileState = true;
+        setGameTime(0);
+        this.stopGameTimer();
+        return true;
       }
-      catch (Exception e3)
+    }
+    else if(e instanceof FileNotFoundException)
+    {
+      JOptionPane.showMessageDialog(this, 
+                                    "Unable to find the selected file"
+                      + "!\n"+ "Click \'OK\' to choose a new file or cancel.",
+                                    "File not found.",
+                                    JOptionPane.ERROR_MESSAGE);
+    }
+    else
+    {
+      JOptionPane.showMessageDialog(this, 
+                                    "The selected maze file is invalid!"
+                                + "!\n"+ "Click \'OK\' to choose a new file.",
+                                    "Maze file format invalid.",
+                                    JOptionPane.ERROR_MESSAGE);
+    }
+    return false;
+  }
+
+  // Asks which maze in a pack to play and returns a loader for it, or null
+  // if the player picks none
+  private MazeLoader loaderFromPack(MZEPack pack, MazeLoader.Listener listener)
+                                    throws InvalidMazeFileException
+  {
+    if(pack.getNumEntries() == 0)
+    {
+      throw(new InvalidMazeFileException(pack.getName()));
+    }
+    String[] mazes = new String[pack.getNumEntries()];
+    for(int i = 0; i < mazes.length; i++)
+    {
+      mazes[i] = "Maze " + (i + 1);
+    }
+    Object choice = JOptionPane.showInputDialog(this,
+                                                "Choose a maze from the pack.",
+                                                "Maze Pack",
+                                                JOptionPane.QUESTION_MESSAGE,
+                                                null,
+                                                mazes,
+                                                mazes[0]);
+    for(int i = 0; i < mazes.length; i++)
+    {
+      if(mazes[i] == choice)
       {
-        JOptionPane.showMessageDialog(this, 
-                                      "The selected maze file is invalid!"
-                                  + "!\n"+ "Click \'OK\' to choose a new file.",
-                                      "Maze file format invalid.",
-                                      JOptionPane.ERROR_MESSAGE);
+        return new MazeLoader(pack, i, mazeCache, listener);
       }
     }
+    return null;
+  }
 
-    // If reading in an original file
-    if(reader.readFilePlacement(0) == -1)
+  // Takes a newly loaded maze. The game state and board are resized if the
+  // maze has a different number of tiles from the last one.
+  private void setModel(MazeModel newModel)
+  {
+    model = newModel;
+    // Autosave is only turned on by saving a game through the save dialog.
+    // A played file that already has a log was saved that way before, so
+    // autosave carries on for it. A pack is never written to.
+    stopAutosave();
+    File file = new File(model.getName());
+    if(model.isPlayed() && !model.isInPack() &&
+       AutosaveLog.logFile(file).isFile())
     {
-      // Generate random placement and rotation
-      Tile.shuffleRandomPlacement();
-      generateRotations();
-      // Load in the corresponding maze with the new random positions 
-      // and new random rotations
-      setOriginalFileTiles();
+      startAutosave(file, model.getFileTimeMillis(), false);
     }
 
-    // If reading in a played game
-    else
+    int numTiles = model.getNumTiles();
+    if(numTiles != state.getNumTiles())
     {
-      setPlayedFileTiles();
+      PanelClickListener.resetSelectedFirst();
+      animator.cancelAll();
+      state = new GameState(numTiles);
+      hints = new HintEngine(state);
+      board.setNumTiles(numTiles);
     }
+  }
 
-    blankFileState = false;
-    
-    gameTimeSeconds = reader.readFileTime();
-    main_nav.setVisibleTime(gameTimeSeconds);
-    //this.startGameTimer();
+  // Picks a new random order and rotation for the tiles of an original maze
+  private void newStartingPosition()
+  {
+    Tile.shuffleRandomPlacement(state.getNumTiles());
+    tileStartingRotations = generateRotations(state.getNumTiles());
   }
 
   private void setOriginalFileTiles()
   {
-    // Set all the tile locations (storage and field) to be empty
-    setEmptyTiles();
-    
-    for (int i = 0; i < 16; i++)
-    {
-      storagePanels[i].setEmpty(false);
-      int location = Tile.getRandomPlace(i);
-      storagePanels[i].setHome(location);
-      storagePanels[i].setLineCoordinateList(
-                                       reader.readFileCoordinateList(location));
-      storagePanels[i].setOrientation(0);
-      storagePanels[i].rotate90(tileStartingRotations[i]);
-      storagePanels[i].setBorder(BorderFactory.createEmptyBorder());
-      storagePanels[i].repaint();
+    // Set all the tile locations (storage and field) to be empty, with no
+    // moves to undo
+    state.clear();
+    journal.clear();
 
-      fieldPanels[i].setEmpty(true);
-      fieldPanels[i].setLineCoordinateList(null);
-      fieldPanels[i].setOrientation(0);
-      fieldPanels[i].setBorder(BorderFactory.createLineBorder(Color.black));
-      fieldPanels[i].repaint();
+    // Tiles start out in the storage slots in a random order and rotation
+    for (int i = 0; i < state.getNumTiles(); i++)
+    {
+      state.placeTile(Tile.getRandomPlace(i), i, tileStartingRotations[i]);
     }
+    savedHash = state.getHash();
+    showBoard();
   }
 
   private void setPlayedFileTiles()
   {
-    // Set all the tile locations (storage and field) to be empty
-    setEmptyTiles();
+    // Set all the tile locations (storage and field) to be empty, with no
+    // moves to undo
+    state.clear();
+    journal.clear();
 
-    // Fill in the locations that have tiles
-    for(int i = 0; i < 16; i++)
+    // Fill in the locations that have tiles. Tiles are stored in the file in
+    // order of their home.
+    for(int i = 0; i < state.getNumTiles(); i++)
     {
-      int location = reader.readFilePlacement(i);
-      if(location < 16)
-      {
-        storagePanels[location].setEmpty(false);
-        storagePanels[location].setHome(location);
-        storagePanels[location].setLineCoordinateList(
-                                              reader.readFileCoordinateList(i));
-        storagePanels[location].rotate90(reader.readFileRotation(i));
-        
-        storagePanels[location].setBorder(BorderFactory.createEmptyBorder());
-        storagePanels[location].repaint();
-      }
-      else
-      {
-        fieldPanels[location - 16].setEmpty(false);
-        fieldPanels[location - 16].setHome(location - 16);
-        fieldPanels[location - 16].setLineCoordinateList(
-                                              reader.readFileCoordinateList(i));
-        fieldPanels[location - 16].rotate90(reader.readFileRotation(i));
-        fieldPanels[location - 16].setBorder(BorderFactory.createEmptyBorder());
-        fieldPanels[location - 16].repaint();
-      }
+      state.placeTile(i, model.getPlacement(i), model.getRotation(i));
     }
+    savedHash = state.getHash();
+    showBoard();
   }
   
   private void setEmptyTiles()
+  {
+    // Set all the tile locations (storage and field) to be empty, with no
+    // moves to undo
+    state.clear();
+    journal.clear();
+    showBoard();
+  }
+
+  public Animator getAnimator()
+  {
+    return animator;
+  }
+
+  // Called for every move the player makes, once it is made
+  public void recordMove(long move)
+  {
+    journal.record(move);
+    logMove(move);
+  }
+
+  public GameState getGameState()
+  {
+    return state;
+  }
+
+  // Hit and miss counts are kept here
+  public MazeCache getMazeCache()
+  {
+    return mazeCache;
+  }
+
+  // Null until a maze has been loaded
+  public EdgeIndex getEdgeIndex()
+  {
+    return model == null ? null : model.getEdgeIndex();
+  }
+
+  private Tile slotPanel(int slot)
+  {
+    return board.getTile(slot);
+  }
+
+  // Redraws every slot to match the game state
+  private void showBoard()
   {
     PanelClickListener.resetSelectedFirst();
-    // Set all the tile locations (storage and field) to be empty
-    for(int i = 0; i < 16; i++)
+    for(int slot = 0; slot < state.getNumSlots(); slot++)
     {
-      storagePanels[i].setEmpty(true);
-      storagePanels[i].setLineCoordinateList(null);
-      storagePanels[i].setOrientation(0);
-      storagePanels[i].setHome(-1);
-      storagePanels[i].setBorder(BorderFactory.createLineBorder(Color.black));
-      storagePanels[i].repaint();
+      showSlot(slot);
+    }
+  }
 
-      fieldPanels[i].setEmpty(true);
-      fieldPanels[i].setLineCoordinateList(null);
-      fieldPanels[i].setOrientation(0);
-      fieldPanels[i].setHome(-1);
-      fieldPanels[i].setBorder(BorderFactory.createLineBorder(Color.black));
-      fieldPanels[i].repaint();
+  // Updates the panel of one slot to match the game state
+  public void showSlot(int slot)
+  {
+    Tile panel = slotPanel(slot);
+    if(state.isEmpty(slot))
+    {
+      panel.setEmpty(true);
+      panel.setGeometry(null);
+      panel.setOrientation(0);
+      panel.setHome(-1);
+      panel.setBorderColor(Color.black);
+    }
+    else
+    {
+      int tile = state.getTile(slot);
+      panel.setEmpty(false);
+      panel.setHome(tile);
+      panel.setGeometry(model.getGeometry(tile));
+      panel.setOrientation(state.getOrientation(slot));
+      panel.setBorderColor(null);
     }
+    panel.repaint();
   }
 
   //////////////////////////////////////////////////////////////////////////////
   // Save Game Capability:
+  // Writes the whole game out as a played file, returning the time played
+  // that was written. A name ending in MZEFormat.V2_SUFFIX gets the compact
+  // version 2 format.
+  private long writeGame(File file) throws IOException
+  {
+    MZEWriter mainData = new MZEWriter(MZEWriter.versionFor(file));
+    // Tiles are written in order of their home, each with the slot it
+    // is in now
+    for(int tile = 0; tile < state.getNumTiles(); tile++)
+    {
+      int currentLocation = state.getSlot(tile);
+      mainData.addData(model.getGeometry(tile).getCoordinates(0), 
+                       currentLocation, 
+                       state.getOrientation(currentLocation));
+    }
+    long millis = clock.getElapsedMillis();
+    mainData.setTimeMillis(millis);
+    // Write all of the aggregated data
+    mainData.writeToFile(file);
+    savedHash = state.getHash();
+    return millis;
+  }
+
+  // Starts autosaving to a played file. fresh empties its log, for a file
+  // that has just been written. The log is only made on the first move.
+  private void startAutosave(File file, long fileMillis, boolean fresh)
+  {
+    try
+    {
+      autosave = new AutosaveLog(file, model.getNumTiles(), fileMillis);
+      if(fresh)
+      {
+        autosave.restart(model.getNumTiles(), fileMillis);
+      }
+    }
+    catch(IOException e)
+    {
+      autosave = null;
+    }
+  }
+
+  private void stopAutosave()
+  {
+    if(autosave != null)
+    {
+      autosave.close();
+      autosave = null;
+    }
+  }
+
+  // Appends a move to the autosave log, writing the whole game back to its
+  // file once the log has grown long
+  private void logMove(long move)
+  {
+    if(autosave == null)
+    {
+      return;
+    }
+    try
+    {
+      autosave.append(move, clock.getElapsedMillis());
+      savedHash = state.getHash();
+      if(autosave.getNumRecords() >= COMPACT_RECORDS)
+      {
+        compactAutosave();
+      }
+    }
+    catch(IOException e)
+    {
+      autosaveFailed(e);
+    }
+  }
+
+  // Writes the whole game back to the autosaved file and empties its log
+  private void compactAutosave()
+  {
+    if(autosave == null)
+    {
+      return;
+    }
+    try
+    {
+      long millis = writeGame(autosave.getMazeFile());
+      autosave.restart(model.getNumTiles(), millis);
+    }
+    catch(IOException e)
+    {
+      autosaveFailed(e);
+    }
+  }
+
+  private void autosaveFailed(IOException e)
+  {
+    JOptionPane.showMessageDialog(this, 
+                                  "Autosave has stopped.\n" + e.getMessage(),
+                                  "Autosave failed.",
+                                  JOptionPane.WARNING_MESSAGE);
+    stopAutosave();
+  }
+
   // Returns true if the game was saved, otherwise false
   private boolean saveGame()
   {
@@ -839,40 +1056,23 @@ public class GameWindow extends JFrame implements ActionListener
           }
         }
 
-        // Save the file!
-        MZEWriter mainData = new MZEWriter();
-        // Get the data about the maze
-        // Storage panels
-        int currentLocation;
-        int originalLocation = 0 ;
-        // Gathering information about the current game
-        while(originalLocation < 16) // terminate once all 16 tiles found
-        {    
-         // Checking storage panels for current tile
-            for(int index = 0; index < 16; index++)
-            {
-                // If current panel has the home we are looking for add it
-                if(storagePanels[index].getHome() == originalLocation )
-                {
-                   currentLocation = index;
-                   mainData.addData(storagePanels[index],currentLocation);
-                }
-            }
-        // Checking field panels for current tile
-            for(int index = 0; index < 16; index++)
-            {
-             // If current panel has the home we are looking for add it
-                if(fieldPanels[index].getHome() == originalLocation )
-                {
-                   currentLocation = index +16; // accounts for interior
-                   mainData.addData(fieldPanels[index],currentLocation);
-                }
-            }
-            originalLocation++;// next iteration will look for the next tile
+        // Save the file! From now on moves are autosaved to it.
+        long savedMillis;
+        try
+        {
+          savedMillis = writeGame(desiredFile);
+        }
+        catch(IOException e)
+        {
+          JOptionPane.showMessageDialog(this, 
+                                        "The game could not be saved.\n" + 
+                                        e.getMessage(),
+                                        "Save failed.",
+                                        JOptionPane.ERROR_MESSAGE);
+          return false;
         }
-        mainData.getTime(gameTimeSeconds);
-        // Write all of the aggregated data
-        mainData.writeToFile(desiredFile);
+        stopAutosave();
+        startAutosave(desiredFile, savedMillis, true);
 
         /**
         JOptionPane.showMessageDialog(this, 
@@ -907,39 +1107,32 @@ public class GameWindow extends JFrame implements ActionListener
     return false;
   }
   
-  public void incTimeSeconds()
+  // Sets the time played so far and shows it straight away
+  private void setGameTime(long millis)
   {
-    gameTimeSeconds++;
-    main_nav.setVisibleTime(gameTimeSeconds);
+    clock.setElapsedMillis(millis);
+    showGameTime();
   }
-  
-  public long setTimeSeconds(long newTime)
-  {
-    long oldTime = gameTimeSeconds;
-    gameTimeSeconds = newTime;
-    main_nav.setVisibleTime(gameTimeSeconds);
-    return oldTime;
-  }
-  
-  public long getTimeSeconds()
+
+  private void showGameTime()
   {
-    return this.gameTimeSeconds;
+    main_nav.setVisibleTime(clock.getElapsedMillis() / 1000);
   }
   
   // these two methods improve readability.
   private void stopGameTimer()
   {
-    this.timerRunning = false; 
+    clock.pause();
   }
   
   private void startGameTimer()
   {
-    this.timerRunning = true;
+    clock.resume();
   }
   
   public boolean isGameRunning()
   {
-    return this.timerRunning;
+    return clock.isRunning();
   }
 
 };
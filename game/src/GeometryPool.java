@@ -0,0 +1,194 @@
+/**
+ * GeometryPool.java
+ * @author Group J (Ryan Harding, Michael Pate, Adeline Reichert, Austin
+ *                  Stephen, and Ben Wilkin)
+ * Date: Oct 18, 2026
+ * Purpose: Makes sure there is only ever one TileGeometry for each set of
+ *          lines. The same tile turns up over and over, in one maze and
+ *          across saved games and packs of the same maze, and each
+ *          TileGeometry holds its lines four times over. Which way up a
+ *          tile is shown is kept by the tile itself, so one geometry
+ *          serves a tile in every orientation.
+ *          Geometries are found by a hash of their lines the right way up.
+ *          A tile record is hashed and compared straight out of the file, so
+ *          finding a geometry that is already in the pool allocates nothing.
+ *          The pool only holds its geometries weakly, so one that no maze
+ *          uses any more can be collected. It may be used from any thread.
+ */
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+
+public final class GeometryPool
+{
+  private static final int INITIAL_BUCKETS = 256;
+
+  private static Entry[] buckets = new Entry[INITIAL_BUCKETS];
+  private static int size = 0;
+  // Entries whose geometry has been collected turn up here
+  private static ReferenceQueue<TileGeometry> collected =
+    new ReferenceQueue<>();
+  private static long hits = 0;
+  private static long misses = 0;
+
+  private static class Entry extends WeakReference<TileGeometry>
+  {
+    private int hash;
+    private Entry next;
+
+    Entry(TileGeometry geometry, int hash, Entry next)
+    {
+      super(geometry, collected);
+      this.hash = hash;
+      this.next = next;
+    }
+  };
+
+  private GeometryPool()
+  {
+  }
+
+  // The geometry with these lines, the right way up. coordinates is not
+  // kept, so the caller may reuse it.
+  public static synchronized TileGeometry intern(float[] coordinates)
+  {
+    removeCollected();
+    int hash = Arrays.hashCode(coordinates);
+    for(Entry e = buckets[hash & (buckets.length - 1)]; e != null;
+        e = e.next)
+    {
+      TileGeometry geometry = e.get();
+      if(e.hash == hash && geometry != null &&
+         Arrays.equals(geometry.getCoordinates(0), coordinates))
+      {
+        hits++;
+        return geometry;
+      }
+    }
+    return add(new TileGeometry(coordinates), hash);
+  }
+
+  // The geometry with the lines of a tile record, as stored in the file
+  public static synchronized TileGeometry intern(MZETileRecord record)
+  {
+    removeCollected();
+    int count = record.getNumCoordinates();
+    // the same hash as Arrays.hashCode gives for the record's coordinates
+    int hash = 1;
+    for(int i = 0; i < count; i++)
+    {
+      hash = 31 * hash + Float.floatToIntBits(record.getCoordinate(i));
+    }
+    for(Entry e = buckets[hash & (buckets.length - 1)]; e != null;
+        e = e.next)
+    {
+      TileGeometry geometry = e.get();
+      if(e.hash == hash && geometry != null && matches(geometry, record))
+      {
+        hits++;
+        return geometry;
+      }
+    }
+    return add(new TileGeometry(record.getCoordinateList()), hash);
+  }
+
+  // Equal in the same sense as Arrays.equals, so NaNs match each other
+  private static boolean matches(TileGeometry geometry, MZETileRecord record)
+  {
+    float[] coordinates = geometry.getCoordinates(0);
+    if(coordinates.length != record.getNumCoordinates())
+    {
+      return false;
+    }
+    for(int i = 0; i < coordinates.length; i++)
+    {
+      if(Float.floatToIntBits(coordinates[i]) !=
+         Float.floatToIntBits(record.getCoordinate(i)))
+      {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static TileGeometry add(TileGeometry geometry, int hash)
+  {
+    misses++;
+    if(size >= buckets.length * 3 / 4)
+    {
+      grow();
+    }
+    int bucket = hash & (buckets.length - 1);
+    buckets[bucket] = new Entry(geometry, hash, buckets[bucket]);
+    size++;
+    return geometry;
+  }
+
+  private static void grow()
+  {
+    Entry[] bigger = new Entry[buckets.length * 2];
+    for(Entry head : buckets)
+    {
+      Entry e = head;
+      while(e != null)
+      {
+        Entry next = e.next;
+        int bucket = e.hash & (bigger.length - 1);
+        e.next = bigger[bucket];
+        bigger[bucket] = e;
+        e = next;
+      }
+    }
+    buckets = bigger;
+  }
+
+  // Unlinks the entries of geometries that have been collected
+  private static void removeCollected()
+  {
+    for(Object gone = collected.poll(); gone != null;
+        gone = collected.poll())
+    {
+      Entry entry = (Entry)gone;
+      int bucket = entry.hash & (buckets.length - 1);
+      Entry previous = null;
+      for(Entry e = buckets[bucket]; e != null; e = e.next)
+      {
+        if(e == entry)
+        {
+          if(previous == null)
+          {
+            buckets[bucket] = e.next;
+          }
+          else
+          {
+            previous.next = e.next;
+          }
+          size--;
+          break;
+        }
+        previous = e;
+      }
+    }
+  }
+
+  // Number of geometries in the pool, some of which may have been collected
+  // but not yet cleared out
+  public static synchronized int getSize()
+  {
+    return size;
+  }
+
+  // Times a geometry already in the pool was handed out
+  public static synchronized long getHits()
+  {
+    return hits;
+  }
+
+  // Times a new geometry had to be made
+  public static synchronized long getMisses()
+  {
+    return misses;
+  }
+
+};
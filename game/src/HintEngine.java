@@ -0,0 +1,226 @@
+/**
+ * HintEngine.java
+ * @author Group J (Ryan Harding, Michael Pate, Adeline Reichert, Austin
+ *                  Stephen, and Ben Wilkin)
+ * Date: Oct 18, 2026
+ * Purpose: Suggests the player's next move. The engine listens to a
+ *          GameState and sorts every tile that is not yet home the right way
+ *          up into one of three sets as the board changes:
+ *            ready      - its home slot is empty, so one move puts it there
+ *            misrotated - it is home but needs turning
+ *            blocked    - another tile is sitting in its home slot
+ *          It also keeps the set of empty storage slots. A hint is then just
+ *          a look at the front of a set, so asking for one costs the same
+ *          however big the board is, and no change ever rescans the board.
+ */
+
+import java.util.Arrays;
+
+public class HintEngine implements GameState.Listener
+{
+  private GameState state;
+  private int numTiles;
+  private IndexedSet ready;
+  private IndexedSet misrotated;
+  private IndexedSet blocked;
+  private IndexedSet emptyStorage;
+
+  // A suggested move: either move the tile in fromSlot into the empty
+  // toSlot, or turn the tile in fromSlot (toSlot is then the same slot)
+  public static class Hint
+  {
+    private boolean rotate;
+    private int fromSlot;
+    private int toSlot;
+
+    Hint(boolean rotate, int fromSlot, int toSlot)
+    {
+      this.rotate = rotate;
+      this.fromSlot = fromSlot;
+      this.toSlot = toSlot;
+    }
+
+    public boolean isRotate()
+    {
+      return rotate;
+    }
+
+    public int getFromSlot()
+    {
+      return fromSlot;
+    }
+
+    public int getToSlot()
+    {
+      return toSlot;
+    }
+  };
+
+  // A set of ints from 0 to capacity-1 with constant time add, remove and
+  // first. Members are kept packed at the front of an array, and each
+  // member's place in it is remembered so it can be swapped out.
+  private static class IndexedSet
+  {
+    private int[] members;
+    private int[] place;
+    private int size;
+
+    IndexedSet(int capacity)
+    {
+      members = new int[capacity];
+      place = new int[capacity];
+      Arrays.fill(place, -1);
+    }
+
+    void add(int value)
+    {
+      if(place[value] < 0)
+      {
+        place[value] = size;
+        members[size++] = value;
+      }
+    }
+
+    void remove(int value)
+    {
+      int at = place[value];
+      if(at >= 0)
+      {
+        int last = members[--size];
+        members[at] = last;
+        place[last] = at;
+        place[value] = -1;
+      }
+    }
+
+    boolean isEmpty()
+    {
+      return size == 0;
+    }
+
+    int first()
+    {
+      return members[0];
+    }
+
+    void clear()
+    {
+      for(int i = 0; i < size; i++)
+      {
+        place[members[i]] = -1;
+      }
+      size = 0;
+    }
+  };
+
+  public HintEngine(GameState state)
+  {
+    this.state = state;
+    numTiles = state.getNumTiles();
+    ready = new IndexedSet(numTiles);
+    misrotated = new IndexedSet(numTiles);
+    blocked = new IndexedSet(numTiles);
+    emptyStorage = new IndexedSet(numTiles);
+
+    // One scan to catch up with whatever is already on the board
+    for(int slot = 0; slot < state.getNumSlots(); slot++)
+    {
+      slotChanged(slot);
+    }
+    state.addListener(this);
+  }
+
+  @Override
+  public void slotChanged(int slot)
+  {
+    if(!state.isFieldSlot(slot))
+    {
+      if(state.isEmpty(slot))
+      {
+        emptyStorage.add(slot);
+      }
+      else
+      {
+        emptyStorage.remove(slot);
+      }
+    }
+    else
+    {
+      // The tile that belongs here may have just been freed up or blocked
+      int owner = slot - numTiles;
+      if(state.getSlot(owner) != GameState.EMPTY)
+      {
+        classify(owner);
+      }
+    }
+    if(!state.isEmpty(slot))
+    {
+      classify(state.getTile(slot));
+    }
+  }
+
+  @Override
+  public void cleared()
+  {
+    ready.clear();
+    misrotated.clear();
+    blocked.clear();
+    emptyStorage.clear();
+    for(int slot = 0; slot < numTiles; slot++)
+    {
+      emptyStorage.add(slot);
+    }
+  }
+
+  // Puts a tile on the board into the set it now belongs in
+  private void classify(int tile)
+  {
+    ready.remove(tile);
+    misrotated.remove(tile);
+    blocked.remove(tile);
+
+    int home = state.fieldSlot(tile);
+    int slot = state.getSlot(tile);
+    if(slot == home)
+    {
+      if(state.getOrientation(slot) != 0)
+      {
+        misrotated.add(tile);
+      }
+    }
+    else if(state.isEmpty(home))
+    {
+      ready.add(tile);
+    }
+    else
+    {
+      blocked.add(tile);
+    }
+  }
+
+  // The best next move, or null if every tile on the board is already home
+  // the right way up. Moving a tile home comes first, then turning tiles
+  // that are home, and last clearing a wrong tile out of the way.
+  public Hint getHint()
+  {
+    if(!ready.isEmpty())
+    {
+      int tile = ready.first();
+      return new Hint(false, state.getSlot(tile), state.fieldSlot(tile));
+    }
+    if(!misrotated.isEmpty())
+    {
+      int slot = state.getSlot(misrotated.first());
+      return new Hint(true, slot, slot);
+    }
+    if(!blocked.isEmpty() && !emptyStorage.isEmpty())
+    {
+      // The tile in the way is not home either (or its own home would be
+      // free and it would be ready), so it goes into storage for now
+      int home = state.fieldSlot(blocked.first());
+      return new Hint(false, home, emptyStorage.first());
+    }
+    return null;
+  }
+
+};
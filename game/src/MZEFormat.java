@@ -0,0 +1,83 @@
+/**
+ * MZEFormat.java
+ * @author Group J (Ryan Harding, Michael Pate, Adeline Reichert, Austin
+ *                  Stephen, and Ben Wilkin)
+ * Date: Oct 18, 2026
+ * Purpose: Holds the magic numbers and record sizes of the .mze file format so
+ *          the reader and writer agree on the layout
+ *
+ *          Version 2 is a compact form of the same thing. Its header is the
+ *          magic, then the number of tiles and the time played in
+ *          milliseconds as varints (see Converter). Each tile is its
+ *          location, rotation and number of lines as varints, then every
+ *          coordinate as a 16 bit fixed point number in units of
+ *          1/COORDINATE_SCALE. A version 2 file always ends with a trailer.
+ */
+
+public final class MZEFormat
+{
+  // First 4 bytes of a maze that has never been played
+  public static final int ORIGINAL_MAGIC = 0xCAFEBEEF;
+  // First 4 bytes of a maze that has been saved part way through a game
+  public static final int PLAYED_MAGIC = 0xCAFEDEED;
+  // Same as PLAYED_MAGIC, but the time played is in milliseconds rather
+  // than seconds. This is what is written now.
+  public static final int PLAYED_MILLIS_MAGIC = 0xCAFED00D;
+  // The same two kinds of file in version 2
+  public static final int V2_ORIGINAL_MAGIC = 0xCAFEB002;
+  public static final int V2_PLAYED_MAGIC = 0xCAFED002;
+
+  public static final int VERSION_1 = 1;
+  public static final int VERSION_2 = 2;
+  // Files saved under a name ending in this are written as version 2
+  public static final String V2_SUFFIX = ".mz2";
+
+  // magic(4) + number of tiles(4) + time played(8)
+  public static final int HEADER_SIZE = 16;
+  // location(4) + rotation(4) + number of lines(4)
+  public static final int TILE_HEADER_SIZE = 12;
+  // 4 floats per line, 4 bytes per float
+  public static final int LINE_SIZE = 16;
+
+  // magic(4) + number of tiles(varint, up to 5) + time played(varint, up
+  // to 10)
+  public static final int V2_MAX_HEADER_SIZE = 19;
+  // location, rotation and number of lines, a varint of at least 1 byte each
+  public static final int V2_MIN_TILE_SIZE = 3;
+  // 4 coordinates per line, 2 bytes per coordinate
+  public static final int V2_LINE_SIZE = 8;
+  // The tile space runs from 0 to 100, and every coordinate in it that is a
+  // multiple of 1/256 is stored exactly. Anything from -128 up to just under
+  // 128 fits in a coordinate.
+  public static final int COORDINATE_SCALE = 256;
+
+  // Files are now written with a trailer after the last tile: this magic
+  // number, then the CRC32C of everything before the trailer. Read as a
+  // float the magic is a NaN, which no coordinate is, so an older file
+  // without a trailer is never mistaken for one with it.
+  public static final int TRAILER_MAGIC = 0x7FC3C32C;
+  // magic(4) + checksum(4)
+  public static final int TRAILER_SIZE = 8;
+
+  // A pack holds many maze files in one. It starts with PACK_MAGIC and the
+  // number of entries (int), then a table with one row per entry:
+  //   offset of the entry from the start of the pack (long), bytes stored
+  //   (int), bytes once inflated (int)
+  // An entry is stored deflated if the two sizes differ, and as the maze
+  // file itself if not.
+  public static final int PACK_MAGIC = 0xCAFE9ACC;
+  public static final String PACK_SUFFIX = ".mzp";
+  // magic(4) + number of entries(4)
+  public static final int PACK_HEADER_SIZE = 8;
+  public static final int PACK_ENTRY_SIZE = 16;
+  // Deflate can shrink data at most about 1032 times, so an entry claiming
+  // to inflate to more than this many times its stored size, plus a little
+  // for a tiny entry, is not a real one
+  public static final int PACK_MAX_INFLATE_RATIO = 1032;
+  public static final int PACK_INFLATE_SLACK = 1024;
+
+  private MZEFormat()
+  {
+  }
+
+};
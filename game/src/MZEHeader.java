@@ -0,0 +1,45 @@
+/**
+ * MZEHeader.java
+ * @author Group J (Ryan Harding, Michael Pate, Adeline Reichert, Austin
+ *                  Stephen, and Ben Wilkin)
+ * Date: Oct 18, 2026
+ * Purpose: The fixed size header at the start of a maze file. Lets a file be
+ *          described without reading any of its tiles.
+ */
+
+public class MZEHeader
+{
+  private boolean played;
+  private int numTiles;
+  private long timeMillis;
+
+  public MZEHeader(boolean played, int numTiles, long timeMillis)
+  {
+    this.played = played;
+    this.numTiles = numTiles;
+    this.timeMillis = timeMillis;
+  }
+
+  public boolean isPlayed()
+  {
+    return played;
+  }
+
+  public int getNumTiles()
+  {
+    return numTiles;
+  }
+
+  // Seconds played so far. Original files are always reported as 0, which is
+  // what MZEReader.readFileTime() gives for them.
+  public long getTime()
+  {
+    return getTimeMillis() / 1000;
+  }
+
+  public long getTimeMillis()
+  {
+    return played ? timeMillis : 0;
+  }
+
+};
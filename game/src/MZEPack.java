@@ -0,0 +1,286 @@
+/**
+ * MZEPack.java
+ * @author Group J (Ryan Harding, Michael Pate, Adeline Reichert, Austin
+ *                  Stephen, and Ben Wilkin)
+ * Date: Oct 18, 2026
+ * Purpose: A pack of many maze files in one file (see MZEFormat for the
+ *          layout). The pack is memory mapped when opened and only its
+ *          table is read, so any maze in it can be got at by number without
+ *          touching the rest. Entries stored as they are come back as a view
+ *          of the mapped file; deflated ones are inflated on request.
+ *          Run it to build a pack out of maze files:
+ *            java MZEPack [-deflate] catalog.mzp input/*.mze
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+public class MZEPack
+{
+  private String name;
+  private ByteBuffer data;
+  private int numEntries;
+
+  private MZEPack(String name, ByteBuffer data, int numEntries)
+  {
+    this.name = name;
+    this.data = data;
+    this.numEntries = numEntries;
+  }
+
+  // Maps a pack and checks that its table makes sense
+  public static MZEPack open(String name) throws
+                    FileNotFoundException, IOException, InvalidMazeFileException
+  {
+    ByteBuffer data;
+    try (FileInputStream in = new FileInputStream(name);
+         FileChannel channel = in.getChannel())
+    {
+      long size = channel.size();
+      if(size < MZEFormat.PACK_HEADER_SIZE || size > Integer.MAX_VALUE)
+      {
+        throw(new InvalidMazeFileException(name));
+      }
+      data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+
+    int numEntries = Converter.readInt(data, 4);
+    if(Converter.readInt(data, 0) != MZEFormat.PACK_MAGIC || numEntries < 0 ||
+       (data.limit() - MZEFormat.PACK_HEADER_SIZE) / MZEFormat.PACK_ENTRY_SIZE
+         < numEntries)
+    {
+      throw(new InvalidMazeFileException(name));
+    }
+    MZEPack pack = new MZEPack(name, data, numEntries);
+    for(int i = 0; i < numEntries; i++)
+    {
+      // The inflated size is what getEntry allocates, so it must be one
+      // the stored bytes could really inflate to
+      long maxSize = (long)pack.getStoredSize(i) * 
+                     MZEFormat.PACK_MAX_INFLATE_RATIO + 
+                     MZEFormat.PACK_INFLATE_SLACK;
+      if(pack.getOffset(i) < 0 || pack.getStoredSize(i) < 0 ||
+         pack.getSize(i) < 0 || pack.getSize(i) > maxSize ||
+         pack.getOffset(i) > data.limit() - pack.getStoredSize(i))
+      {
+        throw(new InvalidMazeFileException(name));
+      }
+    }
+    return pack;
+  }
+
+  public static boolean isPack(File file)
+  {
+    return file.getName().endsWith(MZEFormat.PACK_SUFFIX);
+  }
+
+  public String getName()
+  {
+    return name;
+  }
+
+  public int getNumEntries()
+  {
+    return numEntries;
+  }
+
+  // A name for an entry, for messages and for MZEReader.getName()
+  public String getEntryName(int index)
+  {
+    return name + "#" + (index + 1);
+  }
+
+  public boolean isDeflated(int index)
+  {
+    return getStoredSize(index) != getSize(index);
+  }
+
+  // The maze file held in an entry. Nothing else in the pack is read.
+  public ByteBuffer getEntry(int index) throws InvalidMazeFileException
+  {
+    if(index < 0 || index >= numEntries)
+    {
+      throw(new IndexOutOfBoundsException("no entry " + index + " in " +
+                                          name));
+    }
+    ByteBuffer stored = data.slice((int)getOffset(index),
+                                   getStoredSize(index));
+    if(!isDeflated(index))
+    {
+      return stored;
+    }
+
+    ByteBuffer entry = ByteBuffer.allocate(getSize(index));
+    Inflater inflater = new Inflater();
+    try
+    {
+      inflater.setInput(stored);
+      while(entry.hasRemaining() && !inflater.finished())
+      {
+        if(inflater.inflate(entry) == 0 &&
+           (inflater.needsInput() || inflater.needsDictionary()))
+        {
+          break;
+        }
+      }
+      if(entry.hasRemaining() || !inflater.finished())
+      {
+        throw(new InvalidMazeFileException(getEntryName(index)));
+      }
+    }
+    catch(DataFormatException e)
+    {
+      throw(new InvalidMazeFileException(getEntryName(index)));
+    }
+    finally
+    {
+      inflater.end();
+    }
+    entry.flip();
+    return entry;
+  }
+
+  private long getOffset(int index)
+  {
+    return Converter.readLong(data, tableRow(index));
+  }
+
+  private int getStoredSize(int index)
+  {
+    return Converter.readInt(data, tableRow(index) + 8);
+  }
+
+  private int getSize(int index)
+  {
+    return Converter.readInt(data, tableRow(index) + 12);
+  }
+
+  private static int tableRow(int index)
+  {
+    return MZEFormat.PACK_HEADER_SIZE + index * MZEFormat.PACK_ENTRY_SIZE;
+  }
+
+  // Writes a pack of the given maze files, in order. With deflate set, each
+  // entry is deflated if that makes it smaller. The header and checksum of
+  // every maze are checked first, so a pack never holds a file that is
+  // plainly not a maze.
+  public static void write(File pack, List<File> mazes, boolean deflate)
+                    throws FileNotFoundException, IOException,
+                           InvalidMazeFileException
+  {
+    List<byte[]> entries = new ArrayList<>();
+    int[] sizes = new int[mazes.size()];
+    for(int i = 0; i < mazes.size(); i++)
+    {
+      byte[] maze = Files.readAllBytes(mazes.get(i).toPath());
+      new MZETileIterator(ByteBuffer.wrap(maze), mazes.get(i).getPath());
+      sizes[i] = maze.length;
+      byte[] deflated = deflate ? deflate(maze) : null;
+      entries.add(deflated != null && deflated.length < maze.length ?
+                  deflated : maze);
+    }
+
+    int tableSize = MZEFormat.PACK_HEADER_SIZE +
+                    entries.size() * MZEFormat.PACK_ENTRY_SIZE;
+    ByteBuffer table = ByteBuffer.allocate(tableSize);
+    Converter.writeInt(table, 0, MZEFormat.PACK_MAGIC);
+    Converter.writeInt(table, 4, entries.size());
+    long offset = tableSize;
+    for(int i = 0; i < entries.size(); i++)
+    {
+      Converter.writeLong(table, tableRow(i), offset);
+      Converter.writeInt(table, tableRow(i) + 8, entries.get(i).length);
+      Converter.writeInt(table, tableRow(i) + 12, sizes[i]);
+      offset += entries.get(i).length;
+    }
+
+    try (FileChannel channel = FileChannel.open(pack.toPath(),
+                                        StandardOpenOption.CREATE,
+                                        StandardOpenOption.WRITE,
+                                        StandardOpenOption.TRUNCATE_EXISTING))
+    {
+      writeFully(channel, table);
+      for(byte[] entry : entries)
+      {
+        writeFully(channel, ByteBuffer.wrap(entry));
+      }
+    }
+  }
+
+  private static byte[] deflate(byte[] maze)
+  {
+    Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+    try
+    {
+      deflater.setInput(maze);
+      deflater.finish();
+      // a deflated entry is only kept if it is smaller, so there is no need
+      // to make room for more than that
+      byte[] out = new byte[maze.length];
+      int length = 0;
+      while(!deflater.finished() && length < out.length)
+      {
+        length += deflater.deflate(out, length, out.length - length);
+      }
+      if(!deflater.finished())
+      {
+        return null;
+      }
+      byte[] deflated = new byte[length];
+      System.arraycopy(out, 0, deflated, 0, length);
+      return deflated;
+    }
+    finally
+    {
+      deflater.end();
+    }
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer data)
+                                 throws IOException
+  {
+    while(data.hasRemaining())
+    {
+      channel.write(data);
+    }
+  }
+
+  public static void main(String[] args) throws Exception
+  {
+    boolean deflate = false;
+    int first = 0;
+    if(args.length > 0 && args[0].equals("-deflate"))
+    {
+      deflate = true;
+      first = 1;
+    }
+    if(args.length - first < 1)
+    {
+      System.out.println("usage: java MZEPack [-deflate] pack" +
+                         MZEFormat.PACK_SUFFIX + " maze...");
+      return;
+    }
+
+    List<File> mazes = new ArrayList<>();
+    for(int i = first + 1; i < args.length; i++)
+    {
+      mazes.add(new File(args[i]));
+    }
+    File pack = new File(args[first]);
+    write(pack, mazes, deflate);
+    System.out.println(mazes.size() + " mazes, " + pack.length() +
+                       " bytes");
+  }
+
+};
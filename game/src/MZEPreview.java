@@ -0,0 +1,63 @@
+/**
+ * MZEPreview.java
+ * @author Group J (Ryan Harding, Michael Pate, Adeline Reichert, Austin
+ *                  Stephen, and Ben Wilkin)
+ * Date: Oct 18, 2026
+ * Purpose: Accessory for the load game file chooser. Shows whether the
+ *          highlighted file is an original or played maze and how long it has
+ *          been played, using only the file's header. For a pack it shows how
+ *          many mazes are in it.
+ */
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.File;
+import javax.swing.*;
+
+public class MZEPreview extends JLabel implements PropertyChangeListener
+{
+  public static final long serialVersionUID=1;
+
+  public MZEPreview(JFileChooser chooser)
+  {
+    setVerticalAlignment(SwingConstants.TOP);
+    setBorder(BorderFactory.createEmptyBorder(0, 10, 0, 10));
+    chooser.addPropertyChangeListener(this);
+  }
+
+  @Override
+  public void propertyChange(PropertyChangeEvent e)
+  {
+    if(!JFileChooser.SELECTED_FILE_CHANGED_PROPERTY.equals(
+                                                          e.getPropertyName()))
+    {
+      return;
+    }
+
+    File file = (File)e.getNewValue();
+    if(file == null || !file.isFile())
+    {
+      setText("");
+      return;
+    }
+
+    try
+    {
+      if(MZEPack.isPack(file))
+      {
+        MZEPack pack = MZEPack.open(file.getAbsolutePath());
+        setText("<html>Maze pack<br>" + pack.getNumEntries() + " mazes</html>");
+        return;
+      }
+      MZEHeader header = MZEReader.readHeader(file.getAbsolutePath());
+      String status = header.isPlayed() ? "Played game" : "Original maze";
+      setText("<html>" + status + "<br>" + header.getNumTiles() + " tiles<br>"
+              + "Time: " + Nav_Bar.formatTime(header.getTime()) + "</html>");
+    }
+    catch(Exception ex)
+    {
+      setText("Not a maze file");
+    }
+  }
+
+};
@@ -3,172 +3,276 @@
  * @author Group J (Ryan Harding, Michael Pate, Adeline Reichert, Austin
  *                  Stephen, and Ben Wilkin)
  * Date: Apr 30, 2021
- * Purpose: Reads in and stores the contents of original and played maze files
+ * Purpose: Reads in and stores the contents of original and played maze
+ *          files, telling the two versions of the format (see MZEFormat)
+ *          apart by their magic number
  */
 
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
 
-public class MZEReader extends FileInputStream
+public class MZEReader
 {
+  // Files at least this big are memory mapped, smaller ones are read in with
+  // a single read since mapping has a higher fixed cost
+  private static final long MAP_THRESHOLD = 64 * 1024;
+
   private int[] numOfLinesStorage;
-  private float[][] coordinateStorage;
+  // Shared with every other maze that has the same tiles, see GeometryPool
+  private TileGeometry[] geometryStorage;
   private int[] placementStorage = null;
   private int[] rotationStorage = null;
+  // Milliseconds played so far
   private long loadedTime = 0;
+  // Milliseconds played as written in the file itself, before any autosaved
+  // moves were replayed on top
+  private long fileTime = 0;
+  private int replayedMoves = 0;
+  private boolean played = false;
+  private String name;
+  private boolean inPack = false;
 
   public MZEReader (String name, GameWindow window) throws 
                     FileNotFoundException, IOException, InvalidMazeFileException
   {
-    super(name);
+    this.name = name;
+    // Pull the whole file into one buffer, then decode it with absolute gets
+    read(readWholeFile(name), true);
+  }
+
+  // Reads one maze out of a pack. A pack is only ever read, so there is no
+  // autosave log to replay.
+  public MZEReader (MZEPack pack, int index, GameWindow window) throws 
+                                                        InvalidMazeFileException
+  {
+    this.name = pack.getEntryName(index);
+    inPack = true;
+    read(pack.getEntry(index), false);
+  }
 
-    // Read in the first 4 bytes of the file
-    byte first4 = readByte();
-    byte second4 = readByte();
-    byte third4 = readByte();
-    byte fourth4 = readByte();
+  private void read(ByteBuffer data, boolean replay) throws 
+                                                        InvalidMazeFileException
+  {
+    MZETileIterator tiles = new MZETileIterator(data, name);
 
-    // The first 4 bytes match that of an already played file
-    if(first4 == -54 && second4 == -2 && third4 == -34 && fourth4 == -19)
+    try
     {
-      playedReader();
-    }
+      // A maze needs at least one tile
+      if(tiles.getNumTiles() == 0)
+      {
+        throw(new InvalidMazeFileException(name));
+      }
+
+      // The first 4 bytes match that of an already played file
+      played = tiles.isPlayed();
+      if(played)
+      {
+        playedReader(tiles, name);
+        if(replay)
+        {
+          replayLog(name);
+        }
+      }
 
-    // The first 4 bytes match that of an original file
-    else if(first4 == -54 && second4 == -2 && third4 == -66 && fourth4 == -17)
+      // The first 4 bytes match that of an original file
+      else
+      {
+        originalReader(tiles);
+      }
+    }
+    catch(BufferUnderflowException e)
     {
-      originalReader();
+      // The file ended part way through a tile
+      throw(new InvalidMazeFileException(name));
     }
+  }
 
-    else
+  private static ByteBuffer readWholeFile(String name) throws 
+                                           FileNotFoundException, IOException
+  {
+    try (FileInputStream in = new FileInputStream(name);
+         FileChannel channel = in.getChannel())
     {
-      throw(new InvalidMazeFileException(name));
+      long size = channel.size();
+      if(size >= MAP_THRESHOLD)
+      {
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      }
+
+      ByteBuffer data = ByteBuffer.allocate((int)size);
+      while(data.hasRemaining())
+      {
+        if(channel.read(data) == -1)
+        {
+          break;
+        }
+      }
+      data.flip();
+      return data;
     }
+  }
 
-    // Should return -1
-    // A check to make sure you are at the EOF
-    //System.out.println(readInt());
+  // Reads only the header of a maze file, skipping all of the tiles. Used to
+  // describe files quickly when browsing for a game to load.
+  public static MZEHeader readHeader(String name) throws 
+                    FileNotFoundException, IOException, InvalidMazeFileException
+  {
+    // Enough for either version's header, though a small file may end first
+    ByteBuffer data = ByteBuffer.allocate(MZEFormat.V2_MAX_HEADER_SIZE);
+    try (FileInputStream in = new FileInputStream(name);
+         FileChannel channel = in.getChannel())
+    {
+      while(data.hasRemaining())
+      {
+        if(channel.read(data) == -1)
+        {
+          break;
+        }
+      }
+    }
+    data.flip();
+    return MZETileIterator.readHeader(data, name);
   }
 
-  private void playedReader() throws IOException
+  private void playedReader(MZETileIterator tiles, String name) throws 
+                                                        InvalidMazeFileException
   {
-    int intHolder = -100;
-    float floatHolder = 1000.0f;
-    
     // Read in an integer number of tiles, N
-    int numTiles = readInt();
+    int numTiles = tiles.getNumTiles();
     placementStorage = new int[numTiles];
     rotationStorage = new int[numTiles];
     numOfLinesStorage = new int[numTiles];
-    coordinateStorage = new float[numTiles][];
+    geometryStorage = new TileGeometry[numTiles];
     
-    // Read in a long integer, number of seconds played so far
-    loadedTime = readLong();
+    // Read in a long integer, time played so far
+    loadedTime = tiles.getTimeMillis();
+    fileTime = loadedTime;
+
+    // Every tile must be in its own slot, of which there are two per tile
+    boolean[] slotUsed = new boolean[2 * numTiles];
 
-    for(int i = 0; i < numTiles; i++)
+    while(tiles.hasNext())
     {
+      MZETileRecord tile = tiles.next();
+      int i = tile.getTileNum();
+
       // Read in the tile location; should be a number 0 to N-1
-      intHolder = readInt();
-      placementStorage[i] = intHolder;
+      placementStorage[i] = tile.getLocation();
 
       // Read in the rotation of the tile
-      intHolder = readInt();
-      rotationStorage[i] = intHolder;
-
-      // Read in the number of lines on the tile
-      intHolder = readInt();
-      numOfLinesStorage[i] = intHolder;
+      rotationStorage[i] = tile.getRotation();
 
-      coordinateStorage[i] = new float[numOfLinesStorage[i] * 4];
-      // Read in the coordinates
-      for(int j = 0; j < (4 * numOfLinesStorage[i]); j++)
+      int location = placementStorage[i];
+      if(location < 0 || location >= slotUsed.length || slotUsed[location] ||
+         rotationStorage[i] < 0 || rotationStorage[i] > 3)
       {
-        floatHolder = readFloat();
-        coordinateStorage[i][j] = floatHolder;
+        throw(new InvalidMazeFileException(name));
       }
+      slotUsed[location] = true;
+
+      readTile(tile);
     }
   }
 
-  private void originalReader() throws IOException
+  // Makes the moves autosaved since the file was last written (see
+  // AutosaveLog). The log is only a convenience, so one that cannot be read
+  // is skipped, and it stops at the first move that makes no sense.
+  private void replayLog(String name)
   {
-    int intHolder = -100;
-    float floatHolder = 1000.0f;
-    long longHolder = -1000;
-
-    // Read in an integer number of tiles, N
-    int numTiles = readInt();
-
-    numOfLinesStorage = new int[numTiles];
-    coordinateStorage = new float[numTiles][];
+    long[] records;
+    try
+    {
+      records = AutosaveLog.readRecords(name, placementStorage.length,
+                                        fileTime);
+    }
+    catch(IOException e)
+    {
+      return;
+    }
 
-    // Read in number of seconds played so far; should be 0 (and ignore)
-    longHolder = readLong();
+    int numSlots = 2 * placementStorage.length;
+    int[] slotTile = new int[numSlots];
+    Arrays.fill(slotTile, GameState.EMPTY);
+    for(int tile = 0; tile < placementStorage.length; tile++)
+    {
+      slotTile[placementStorage[tile]] = tile;
+    }
 
-    for(int i = 0; i < numTiles; i++)
+    for(int i = 0; i < records.length; i += 2)
     {
-      // Read in the tile number; should be i (and ignore)
-      intHolder = readInt();
-
-      // Read in the rotation of the tile (and ignore)
-      intHolder = readInt();
-
-      // Read in the number of lines on the tile
-      intHolder = readInt();
-      numOfLinesStorage[i] = intHolder;
-      
-      coordinateStorage[i] = new float[numOfLinesStorage[i] * 4];
-      // Read in the coordinates
-      for(int j = 0; j < (4 * numOfLinesStorage[i]); j++)
+      long move = records[i];
+      int slotA = MoveJournal.getSlotA(move);
+      int slotB = MoveJournal.getSlotB(move);
+      if(slotA >= numSlots || slotB >= numSlots)
       {
-        floatHolder = readFloat();
-        coordinateStorage[i][j] = floatHolder;
+        break;
       }
+      // swap the two slots, either of which may be empty
+      int tileA = slotTile[slotA];
+      int tileB = slotTile[slotB];
+      slotTile[slotA] = tileB;
+      slotTile[slotB] = tileA;
+      if(tileA != GameState.EMPTY)
+      {
+        placementStorage[tileA] = slotB;
+      }
+      if(tileB != GameState.EMPTY)
+      {
+        placementStorage[tileB] = slotA;
+      }
+      // then turn whatever is in the first
+      int turned = slotTile[slotA];
+      if(turned != GameState.EMPTY)
+      {
+        rotationStorage[turned] = (rotationStorage[turned] + 
+                                   MoveJournal.getRotationDelta(move)) % 4;
+      }
+      loadedTime = records[i+1];
+      replayedMoves++;
     }
   }
 
-  private int readInt() throws IOException
+  private void originalReader(MZETileIterator tiles)
   {
-    byte [] toRead = new byte[4];
-    if(read(toRead) == -1)
+    // Read in an integer number of tiles, N
+    int numTiles = tiles.getNumTiles();
+
+    numOfLinesStorage = new int[numTiles];
+    geometryStorage = new TileGeometry[numTiles];
+
+    // The number of seconds played so far should be 0 (and is ignored), as
+    // are each tile's number and rotation
+    while(tiles.hasNext())
     {
-      // At EOF. Don't attempt a conversion
-      return -1;
+      readTile(tiles.next());
     }
-    return Converter.convertToInt(toRead);
   }
 
-  private float readFloat() throws IOException
+  // Stores the number of lines and the geometry of a tile record
+  private void readTile(MZETileRecord tile)
   {
-    byte [] toRead = new byte[4];
-    if(read(toRead) == -1)
-    {
-      // At EOF. Don't attempt a conversion
-      return -1;
-    }
-    return Converter.convertToFloat(toRead);
+    // Read in the number of lines on the tile
+    numOfLinesStorage[tile.getTileNum()] = tile.getNumLines();
+
+    // Read in the coordinates, straight into the geometry of any tile seen
+    // before with the same lines
+    geometryStorage[tile.getTileNum()] = GeometryPool.intern(tile);
   }
 
-  private byte readByte() throws IOException
+  public int getNumTiles()
   {
-    byte [] toRead = new byte[1];
-    if(read(toRead) == -1)
-    {
-      //At EOF. Don't attempt a conversion
-      return -1;
-    }
-    return Converter.convertToByte(toRead);
+    return numOfLinesStorage.length;
   }
-  
-  private long readLong() throws IOException
+
+  // True for a game saved part way through, false for an original maze
+  public boolean isPlayed()
   {
-    byte [] toRead = new byte[8];
-    if(read(toRead) == -1)
-    {
-      // At EOF. Don't attempt a conversion
-      return -1;
-    }
-    return Converter.convertToLong(toRead);
+    return played;
   }
 
   public int readFileNumLines(int tileNum)
@@ -176,9 +280,15 @@ public class MZEReader extends FileInputStream
     return numOfLinesStorage[tileNum];
   }
 
+  // The array is shared and must not be changed
   public float[] readFileCoordinateList(int tileNum)
   {
-    return coordinateStorage[tileNum];
+    return geometryStorage[tileNum].getCoordinates(0);
+  }
+
+  public TileGeometry readFileGeometry(int tileNum)
+  {
+    return geometryStorage[tileNum];
   }
 
   public int readFilePlacement(int tileNum)
@@ -199,10 +309,40 @@ public class MZEReader extends FileInputStream
     return rotationStorage[tileNum];
   }
 
+  // Seconds played so far
   public long readFileTime()
   {
     //return 500;
+    return loadedTime / 1000;
+  }
+
+  public long readFileTimeMillis()
+  {
     return loadedTime;
   }
 
+  // The time written in the file itself, which its autosave log follows
+  // on from
+  public long getFileTimeMillis()
+  {
+    return fileTime;
+  }
+
+  // Number of autosaved moves made on top of the file when it was read
+  public int getReplayedMoves()
+  {
+    return replayedMoves;
+  }
+
+  public String getName()
+  {
+    return name;
+  }
+
+  // True if the maze was read out of a pack, so getName() is not a file
+  public boolean isInPack()
+  {
+    return inPack;
+  }
+
 };
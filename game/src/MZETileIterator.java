@@ -0,0 +1,268 @@
+/**
+ * MZETileIterator.java
+ * @author Group J (Ryan Harding, Michael Pate, Adeline Reichert, Austin
+ *                  Stephen, and Ben Wilkin)
+ * Date: Oct 18, 2026
+ * Purpose: Walks the tile records of an original or played maze file one at a
+ *          time, in either version of the format. The file is memory mapped
+ *          rather than read onto the heap, so scanning a file takes the same
+ *          amount of memory whatever its size.
+ */
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.zip.CRC32C;
+import java.util.NoSuchElementException;
+
+public class MZETileIterator implements Iterator<MZETileRecord>
+{
+  private ByteBuffer data;
+  private boolean played;
+  // A version 2 file, see MZEFormat
+  private boolean compact;
+  // Reads the varints of a version 2 file
+  private ByteBuffer cursor;
+  private int numTiles;
+  private long time;
+  // Older played files store the time in seconds
+  private boolean timeInSeconds = false;
+  private int nextTile = 0;
+  private int offset = MZEFormat.HEADER_SIZE;
+
+  // Checks the maze held in data and decodes its header. The tiles are
+  // decoded as next() is called.
+  public MZETileIterator(ByteBuffer data, String name) throws 
+                                                        InvalidMazeFileException
+  {
+    this(data, name, true);
+  }
+
+  // check is false when data is only the start of the file, so there is no
+  // trailer to check
+  private MZETileIterator(ByteBuffer data, String name, boolean check) throws 
+                                                        InvalidMazeFileException
+  {
+    if(data.limit() < 4)
+    {
+      throw(new InvalidMazeFileException(name));
+    }
+
+    int magic = Converter.readInt(data, 0);
+    if(magic == MZEFormat.V2_PLAYED_MAGIC || 
+       magic == MZEFormat.V2_ORIGINAL_MAGIC)
+    {
+      compact = true;
+      played = magic == MZEFormat.V2_PLAYED_MAGIC;
+      this.data = check ? withoutTrailer(data, name, true) : data;
+      cursor = this.data.duplicate();
+      cursor.position(4);
+      try
+      {
+        numTiles = readVarInt(cursor);
+        time = Converter.readVarLong(cursor);
+      }
+      catch(BufferUnderflowException e)
+      {
+        throw(new InvalidMazeFileException(name));
+      }
+      offset = cursor.position();
+    }
+    else
+    {
+      this.data = check ? withoutTrailer(data, name, false) : data;
+      if(data.limit() < MZEFormat.HEADER_SIZE)
+      {
+        throw(new InvalidMazeFileException(name));
+      }
+      if(magic == MZEFormat.PLAYED_MAGIC)
+      {
+        played = true;
+        timeInSeconds = true;
+      }
+      else if(magic == MZEFormat.PLAYED_MILLIS_MAGIC)
+      {
+        played = true;
+      }
+      else if(magic == MZEFormat.ORIGINAL_MAGIC)
+      {
+        played = false;
+      }
+      else
+      {
+        throw(new InvalidMazeFileException(name));
+      }
+      numTiles = Converter.readInt(data, 4);
+      time = Converter.readLong(data, 8);
+    }
+
+    // Each tile takes at least its header, so a count the data cannot hold
+    // is rejected before anyone sizes arrays by it
+    int minTileSize = compact ? MZEFormat.V2_MIN_TILE_SIZE
+                               : MZEFormat.TILE_HEADER_SIZE;
+    if(numTiles < 0 || 
+       (check && numTiles > (this.data.limit() - offset) / minTileSize))
+    {
+      throw(new InvalidMazeFileException(name));
+    }
+  }
+
+  // Decodes the header at the start of a maze file, which is all data has
+  // to hold. There is room for any header in MZEFormat.V2_MAX_HEADER_SIZE
+  // bytes.
+  static MZEHeader readHeader(ByteBuffer data, String name) throws 
+                                                        InvalidMazeFileException
+  {
+    MZETileIterator tiles = new MZETileIterator(data, name, false);
+    return new MZEHeader(tiles.played, tiles.numTiles, tiles.getTimeMillis());
+  }
+
+  // If data ends with a checksum trailer, checks it and returns a view of
+  // data without it. A file that fails the check is rejected here, before
+  // any of its tiles are looked at. Data with no trailer, from a file
+  // written before there were any, is returned as it is unless required
+  // is set.
+  private static ByteBuffer withoutTrailer(ByteBuffer data, String name, 
+                                           boolean required) 
+                                           throws InvalidMazeFileException
+  {
+    int end = data.limit() - MZEFormat.TRAILER_SIZE;
+    if(end < (required ? 4 : MZEFormat.HEADER_SIZE) || 
+       Converter.readInt(data, end) != MZEFormat.TRAILER_MAGIC)
+    {
+      if(required)
+      {
+        throw(new InvalidMazeFileException(name));
+      }
+      return data;
+    }
+
+    // One pass over the whole buffer, which is fast for a mapped file too
+    ByteBuffer body = data.duplicate();
+    body.position(0);
+    body.limit(end);
+    CRC32C crc = new CRC32C();
+    crc.update(body);
+    if((int)crc.getValue() != Converter.readInt(data, end + 4))
+    {
+      throw(new InvalidMazeFileException(name));
+    }
+    body.position(0);
+    return body;
+  }
+
+  // Reads a varint holding an int. Ints are written as unsigned 32 bit
+  // numbers, so negative ones come back as they went in.
+  private static int readVarInt(ByteBuffer in)
+  {
+    long value = Converter.readVarLong(in);
+    if((value >>> 32) != 0)
+    {
+      throw(new BufferUnderflowException());
+    }
+    return (int)value;
+  }
+
+  public static MZETileIterator open(String name) throws 
+                    FileNotFoundException, IOException, InvalidMazeFileException
+  {
+    try (FileInputStream in = new FileInputStream(name);
+         FileChannel channel = in.getChannel())
+    {
+      ByteBuffer data = 
+             channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      return new MZETileIterator(data, name);
+    }
+  }
+
+  public boolean isPlayed()
+  {
+    return played;
+  }
+
+  public int getNumTiles()
+  {
+    return numTiles;
+  }
+
+  // Time played as stored in the header, in milliseconds. Original files
+  // should store 0.
+  public long getTimeMillis()
+  {
+    return timeInSeconds ? time * 1000 : time;
+  }
+
+  @Override
+  public boolean hasNext()
+  {
+    return nextTile < numTiles;
+  }
+
+  // Throws BufferUnderflowException if the file ends part way through the
+  // record, or a varint in it is too long to be one. The last record must
+  // end where the file (or its trailer) starts, so a file whose trailer was
+  // damaged is not taken for an older one that never had a trailer.
+  @Override
+  public MZETileRecord next()
+  {
+    if(!hasNext())
+    {
+      throw(new NoSuchElementException());
+    }
+    MZETileRecord record = compact ? nextCompact() : nextFull();
+    if(!hasNext() && offset != data.limit())
+    {
+      throw(new BufferUnderflowException());
+    }
+    return record;
+  }
+
+  private MZETileRecord nextFull()
+  {
+    if(data.limit() - offset < MZEFormat.TILE_HEADER_SIZE)
+    {
+      throw(new BufferUnderflowException());
+    }
+
+    int location = Converter.readInt(data, offset);
+    int rotation = Converter.readInt(data, offset + 4);
+    int numLines = Converter.readInt(data, offset + 8);
+    offset += MZEFormat.TILE_HEADER_SIZE;
+    if(numLines < 0 || 
+                 (data.limit() - offset) / MZEFormat.LINE_SIZE < numLines)
+    {
+      throw(new BufferUnderflowException());
+    }
+
+    MZETileRecord record = new MZETileRecord(data, offset, nextTile, location,
+                                             rotation, numLines, false);
+    offset += numLines * MZEFormat.LINE_SIZE;
+    nextTile++;
+    return record;
+  }
+
+  private MZETileRecord nextCompact()
+  {
+    cursor.position(offset);
+    int location = readVarInt(cursor);
+    int rotation = readVarInt(cursor);
+    int numLines = readVarInt(cursor);
+    offset = cursor.position();
+    if(numLines < 0 || 
+              (data.limit() - offset) / MZEFormat.V2_LINE_SIZE < numLines)
+    {
+      throw(new BufferUnderflowException());
+    }
+
+    MZETileRecord record = new MZETileRecord(data, offset, nextTile, location,
+                                             rotation, numLines, true);
+    offset += numLines * MZEFormat.V2_LINE_SIZE;
+    nextTile++;
+    return record;
+  }
+
+};
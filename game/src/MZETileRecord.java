@@ -0,0 +1,91 @@
+/**
+ * MZETileRecord.java
+ * @author Group J (Ryan Harding, Michael Pate, Adeline Reichert, Austin
+ *                  Stephen, and Ben Wilkin)
+ * Date: Oct 18, 2026
+ * Purpose: One tile record of a maze file. The coordinates are not copied out
+ *          of the file; they are read from the underlying buffer on request.
+ *          In a version 2 file they are fixed point, and are turned back into
+ *          floats as they are read.
+ */
+
+import java.nio.ByteBuffer;
+
+public class MZETileRecord
+{
+  private ByteBuffer data;
+  private int coordinateOffset;
+  private int tileNum;
+  private int location;
+  private int rotation;
+  private int numLines;
+  // Coordinates are 16 bit fixed point rather than floats
+  private boolean fixedPoint;
+
+  MZETileRecord(ByteBuffer data, int coordinateOffset, int tileNum, 
+                int location, int rotation, int numLines, boolean fixedPoint)
+  {
+    this.data = data;
+    this.coordinateOffset = coordinateOffset;
+    this.tileNum = tileNum;
+    this.location = location;
+    this.rotation = rotation;
+    this.numLines = numLines;
+    this.fixedPoint = fixedPoint;
+  }
+
+  // Position of the record in the file, which is also the tile's home
+  public int getTileNum()
+  {
+    return tileNum;
+  }
+
+  // Location and rotation exactly as stored. Original files store the tile
+  // number and 0 here.
+  public int getLocation()
+  {
+    return location;
+  }
+
+  public int getRotation()
+  {
+    return rotation;
+  }
+
+  public int getNumLines()
+  {
+    return numLines;
+  }
+
+  public int getNumCoordinates()
+  {
+    return numLines * 4;
+  }
+
+  public float getCoordinate(int index)
+  {
+    if(fixedPoint)
+    {
+      return Converter.readShort(data, coordinateOffset + index * 2) / 
+             (float)MZEFormat.COORDINATE_SCALE;
+    }
+    return Converter.readFloat(data, coordinateOffset + index * 4);
+  }
+
+  // Copies the coordinates into dest, which must hold getNumCoordinates()
+  public void getCoordinates(float[] dest)
+  {
+    for(int i = 0; i < getNumCoordinates(); i++)
+    {
+      dest[i] = getCoordinate(i);
+    }
+  }
+
+  public float[] getCoordinateList()
+  {
+    float[] coordinates = new float[getNumCoordinates()];
+    getCoordinates(coordinates);
+    return coordinates;
+  }
+
+};
@@ -3,165 +3,311 @@
  * @author Group J (Ryan Harding, Michael Pate, Adeline Reichert, Austin
  *                  Stephen, and Ben Wilkin)
  * Date: Apr 30, 2021
- * Purpose: Writes out the contents of original and played maze files
+ * Purpose: Writes out the contents of original and played maze files, in
+ *          either version of the format (see MZEFormat)
  */
 
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.zip.CRC32C;
 
 public class MZEWriter
 {
-  private byte mazeData[];
-  private Long time;
+  // Enough for the header and 16 tiles of 8 lines before having to grow
+  private static final int INITIAL_CAPACITY = MZEFormat.HEADER_SIZE + 
+                   16 * (MZEFormat.TILE_HEADER_SIZE + 8 * MZEFormat.LINE_SIZE);
+  // Picks names for the files saves are written to before being moved over
+  private static final Random tempNames = new Random();
+
+  // The whole file is built up in here, the header being filled in last
+  private ByteBuffer mazeData;
+  private int numTiles = 0;
+  // Milliseconds played so far
+  private long time;
+  private boolean played = true;
+  private int version;
+  // Where the first tile starts in mazeData. A version 2 header's size is
+  // not known until the end, so room is left for the biggest one and the
+  // header goes just in front of the tiles.
+  private int tilesStart;
+  // Set if a coordinate could not be stored in version 2
+  private boolean outOfRange = false;
   // Not static, so counter is reset by a new instance of class
 
   public MZEWriter()
   {
+    this(MZEFormat.VERSION_1);
+  }
+
+  // version is MZEFormat.VERSION_1 or MZEFormat.VERSION_2
+  public MZEWriter(int version)
+  {
+    if(version != MZEFormat.VERSION_1 && version != MZEFormat.VERSION_2)
+    {
+      throw(new IllegalArgumentException("no such version: " + version));
+    }
+    this.version = version;
+    tilesStart = version == MZEFormat.VERSION_2 ? 
+                 MZEFormat.V2_MAX_HEADER_SIZE : MZEFormat.HEADER_SIZE;
     // number of coordinates is unknown and must be built dynamically
-    mazeData = new byte[0];
+    mazeData = ByteBuffer.allocate(INITIAL_CAPACITY);
+    mazeData.position(tilesStart);
     time =0L;
   }
 
+  // The version a file should be saved in, going by its name
+  public static int versionFor(File file)
+  {
+    return file.getName().endsWith(MZEFormat.V2_SUFFIX) ? 
+           MZEFormat.VERSION_2 : MZEFormat.VERSION_1;
+  }
+
   // Sets the field mazeData
   // Should only be passed a tile object if it needs written to the file
   public void addData(Tile tile, int location)
   {
-      // Setting tile location in the current game field
-      // converting tile location to bytes
-      byte locationBytes[] = new byte[4];
-      locationBytes = Converter.convertToByteArray(location);
-
-      // Handling rotation
       // Getting rotation
       int rotation = tile.getOrientation();
-      // Converting rotation to byte array
-      byte rotationBytes[] = new byte[4];
-      rotationBytes = Converter.convertToByteArray(rotation);
 
-      // Handling coordinates and computing number of lines
-      // Getting coordinate list
-      float coordFloatTmp[] = tile.getLineCoordinateList();
-      // To correct for rotations when read in
-      int offsettingRotations = (4 - rotation)%4;
-      float coordFloat[] = Tile.rotate90Math(coordFloatTmp,offsettingRotations);
+      // Getting coordinate list the right way up, so that the rotation is
+      // applied correctly when read in
+      float coordFloat[] = tile.getGeometry().getCoordinates(0);
 
+      addData(coordFloat, location, rotation);
+  }
+
+  // Appends one tile. coordFloat holds the tile's lines the right way up,
+  // before the rotation is applied.
+  public void addData(float[] coordFloat, int location, int rotation)
+  {
       // Getting number of lines
       int numberOfLines = coordFloat.length/4;
-      //converting number of lines to byte array
-      byte numberOfLinesBytes[] = new byte[4];
-      numberOfLinesBytes = Converter.convertToByteArray(numberOfLines);
-
-      // converting coordinate list to byte array
-      byte coordByte[] = new byte[coordFloat.length*4];
-      for(int i=0; i <coordFloat.length; i++)
+      if(version == MZEFormat.VERSION_2)
       {
-        byte tmp[] = new byte[4];
-        tmp = Converter.convertToByteArray(coordFloat[i]);
-        int position = i*4;
-        coordByte[position]= tmp[0];
-        coordByte[position+1]= tmp[1];
-        coordByte[position+2]= tmp[2];
-        coordByte[position+3]= tmp[3];
+        addCompactData(coordFloat, location, rotation, numberOfLines);
+        return;
       }
 
-      //appending to mazeData    
-
-      // new mazeData size computed by:
-      // new = length old data(varies) + length new coordinates(varies) + 
-      // length rotation(4) + length location(4) + length of number of lines(4)  
-      int newLength = coordByte.length + mazeData.length + 4 + 4 + 4;
-      //Creating adder storage array of correct length to build new data onto
-      byte adder[] = new byte[newLength];
-      // Copy existing data into adder
-      for(int i=0; i < mazeData.length ; i++ )
-      { 
-        adder[i] = mazeData[i];
-      }
-      // Copy new data into adder
-      for(int i= mazeData.length; i < newLength; i++)
+      // Appending to mazeData, growing it first if the tile won't fit
+      ensureCapacity(MZEFormat.TILE_HEADER_SIZE + coordFloat.length * 4);
+      int position = mazeData.position();
+      Converter.writeInt(mazeData, position, location);
+      Converter.writeInt(mazeData, position + 4, rotation);
+      Converter.writeInt(mazeData, position + 8, numberOfLines);
+      position += MZEFormat.TILE_HEADER_SIZE;
+      for(int i=0; i <coordFloat.length; i++)
       {
-        // Gives the count for number of times in loop ignoring old data offset
-        int position = i - mazeData.length;
-
-        if( position < 4) // first 4 write location
-        {
-          adder[i] = locationBytes[position];
-        }
-        else if(position < 8) // write rotation 4 bytes
-        {
-          // subtracting off how far we are to start at 0 in position 
-          adder[i] = rotationBytes[position -4];
-        }
-        else if(position < 12) // write # of lines 4 bytes
-        {
-          // subtracting off how far we are to start at 0 in position 
-          adder[i] = numberOfLinesBytes[position - 8];  
-        }
-        else if(position >= 12) // last write in all the points length unknown
-        {
-          // subtracting off how far we are to start at 0 in position
-          adder[i] = coordByte[position -12];
-        }
+        Converter.writeFloat(mazeData, position, coordFloat[i]);
+        position += 4;
       }
-      // changing the memory address of mazeData to adder
-      mazeData = adder;
+      mazeData.position(position);
+      numTiles++;
   }   
 
-  public void writeToFile(File file)
+  // Appends one tile in version 2. Ints go in as unsigned 32 bit varints so
+  // that any int reads back as it was.
+  private void addCompactData(float[] coordFloat, int location, int rotation,
+                              int numberOfLines)
   {
-    FileOutputStream fos = null;
+    // three varints of up to 5 bytes each, then 2 bytes a coordinate
+    ensureCapacity(3 * 5 + coordFloat.length * 2);
+    Converter.writeVarLong(mazeData, location & 0xFFFFFFFFL);
+    Converter.writeVarLong(mazeData, rotation & 0xFFFFFFFFL);
+    Converter.writeVarLong(mazeData, numberOfLines);
+    int position = mazeData.position();
+    for(int i=0; i <coordFloat.length; i++)
+    {
+      float scaled = coordFloat[i] * MZEFormat.COORDINATE_SCALE;
+      // also catches NaN
+      if(!(scaled >= Short.MIN_VALUE && scaled <= Short.MAX_VALUE))
+      {
+        outOfRange = true;
+        scaled = 0;
+      }
+      Converter.writeShort(mazeData, position, (short)Math.round(scaled));
+      position += 2;
+    }
+    mazeData.position(position);
+    numTiles++;
+  }
 
-    try {
-      fos = new FileOutputStream(file);
+  // Doubles the size of mazeData until needed more bytes fit, so adding 
+  // tiles costs linear time overall
+  private void ensureCapacity(int needed)
+  {
+    if(mazeData.remaining() >= needed)
+    {
+      return;
+    }
+    int newCapacity = mazeData.capacity() * 2;
+    while(newCapacity - mazeData.position() < needed)
+    {
+      newCapacity *= 2;
+    }
+    ByteBuffer bigger = ByteBuffer.allocate(newCapacity);
+    mazeData.flip();
+    bigger.put(mazeData);
+    mazeData = bigger;
+  }
 
+  // Writes the maze to file without ever leaving a half written file
+  // behind: it goes to a temporary file in the same folder first, which is
+  // synced to disk and then renamed over file in one step. A crash part way
+  // through leaves either the old file or the new one.
+  public void writeToFile(File file) throws IOException
+  {
+    if(outOfRange)
+    {
+      throw(new IOException("a coordinate is too big for version 2"));
+    }
+    int start = version == MZEFormat.VERSION_2 ? writeCompactHeader() : 0;
+    if(version == MZEFormat.VERSION_1)
+    {
       // Writing hex for played 
-      fos.write((byte)0xca); // 0xca
-      fos.write((byte)0xfe); // 0xfe
-      fos.write((byte)0xde); //0xde
-      fos.write((byte)0xed); //0xed
+      Converter.writeInt(mazeData, 0, played ? MZEFormat.PLAYED_MILLIS_MAGIC
+                                             : MZEFormat.ORIGINAL_MAGIC);
 
       // Writing # of tiles
-      fos.write(Converter.convertToByteArray(16));
+      Converter.writeInt(mazeData, 4, numTiles);
       
       // Writing time
       // time has to be set in game window or it will print 0
-      fos.write(Converter.convertToByteArray(time));
-      
-      // All other data should already be added to mazeData gets written here
-      for(int i=0; i <mazeData.length/4; i++)
+      Converter.writeLong(mazeData, 8, time);
+    }
+
+    // Then the trailer, checksumming everything before it
+    ensureCapacity(MZEFormat.TRAILER_SIZE);
+    int end = mazeData.position();
+    ByteBuffer body = mazeData.duplicate();
+    body.flip();
+    body.position(start);
+    CRC32C crc = new CRC32C();
+    crc.update(body);
+    Converter.writeInt(mazeData, end, MZEFormat.TRAILER_MAGIC);
+    Converter.writeInt(mazeData, end + 4, (int)crc.getValue());
+
+    // All other data should already be added to mazeData, so the whole file
+    // goes out in one write
+    ByteBuffer toWrite = mazeData.duplicate();
+    toWrite.position(start);
+    toWrite.limit(end + MZEFormat.TRAILER_SIZE);
+
+    Path target = file.getAbsoluteFile().toPath();
+    Path folder = target.getParent();
+    Path temp = createTempFor(target);
+    try
+    {
+      try (FileChannel channel = FileChannel.open(temp, 
+                                                  StandardOpenOption.WRITE))
       {
-        // Take the data out of mazeData and write 4 bytes at a time
-        byte writer[] =  new byte[4];
-        int position = i*4;
-        writer[0] = mazeData[position];
-        writer[1]= mazeData[position + 1];
-        writer[2] = mazeData[position + 2];
-        writer[3]= mazeData[position + 3];
-        //System.out.print("Float value: ");
-        //System.out.print(Converter.convertToFloat(writer));
-        //System.out.print(" Int value: ");
-        //System.out.println(Converter.convertToInt(writer));
-        fos.write(writer);
+        while(toWrite.hasRemaining())
+        {
+          channel.write(toWrite);
+        }
+        channel.force(true);
       }
-
-    }
-    // Just to compile handled before the file is passed 
-    catch (FileNotFoundException e) {
+      try
+      {
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, 
+                   StandardCopyOption.REPLACE_EXISTING);
+      }
+      catch(AtomicMoveNotSupportedException e)
+      {
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+      }
+      temp = null;
+      syncFolder(folder);
     }
-    catch (IOException ioe) {
+    finally
+    {
+      if(temp != null)
+      {
+        Files.deleteIfExists(temp);
+      }
     }
-    finally {
-      // close the streams using close method
-      try {
-        if (fos != null) {
-          fos.close();
-        }
+  }
+
+  // Puts the version 2 header just in front of the tiles, returning where it
+  // starts
+  private int writeCompactHeader()
+  {
+    ByteBuffer header = ByteBuffer.allocate(MZEFormat.V2_MAX_HEADER_SIZE);
+    Converter.writeInt(header, 0, played ? MZEFormat.V2_PLAYED_MAGIC
+                                         : MZEFormat.V2_ORIGINAL_MAGIC);
+    header.position(4);
+    Converter.writeVarLong(header, numTiles);
+    Converter.writeVarLong(header, time);
+    header.flip();
+    int start = tilesStart - header.remaining();
+    mazeData.put(start, header, 0, header.remaining());
+    return start;
+  }
+
+  // Makes the file a save is written to before it is moved over target, in
+  // the same folder. It gets target's permissions if target is already
+  // there, or else the ones any new file would get. (Files.createTempFile
+  // would leave the saved file readable by its owner only.)
+  private static Path createTempFor(Path target) throws IOException
+  {
+    Path temp;
+    while(true)
+    {
+      temp = target.resolveSibling(target.getFileName() + "." + 
+                                   tempNames.nextInt(Integer.MAX_VALUE) +
+                                   ".tmp");
+      try
+      {
+        FileChannel.open(temp, StandardOpenOption.CREATE_NEW, 
+                         StandardOpenOption.WRITE).close();
+        break;
+      }
+      catch(FileAlreadyExistsException e)
+      {
+        // try another name
       }
-      catch (IOException ioe) {
+    }
+    try
+    {
+      if(Files.exists(target))
+      {
+        Files.setPosixFilePermissions(temp, 
+                                      Files.getPosixFilePermissions(target));
       }
     }
+    catch(UnsupportedOperationException e)
+    {
+      // not a POSIX file system, so there are no permissions to keep
+    }
+    catch(IOException e)
+    {
+      Files.deleteIfExists(temp);
+      throw(e);
+    }
+    return temp;
+  }
+
+  // Makes the rename itself survive a crash. Not every system can sync a
+  // folder, and the file is safely written either way, so failing is fine.
+  private static void syncFolder(Path folder)
+  {
+    try (FileChannel channel = FileChannel.open(folder, 
+                                                StandardOpenOption.READ))
+    {
+      channel.force(true);
+    }
+    catch(IOException e)
+    {
+      // the rename still happens, it just may not be on disk yet
+    }
   }
 
   // Test if a tile contains a maze piece 
@@ -172,8 +318,20 @@ public class MZEWriter
     return tileIsEmpty;  
   }
 
+  // Takes the time played in seconds
   public void getTime(Long gameState)
   {
-      time = gameState;
+      time = gameState * 1000;
+  }
+
+  public void setTimeMillis(long millis)
+  {
+      time = millis;
+  }
+
+  // Whether to write a played file, which is the default, or an original
+  public void setPlayed(boolean played)
+  {
+      this.played = played;
   }
-};
\ No newline at end of file
+};
@@ -0,0 +1,134 @@
+/**
+ * MazeCache.java
+ * @author Group J (Ryan Harding, Michael Pate, Adeline Reichert, Austin
+ *                  Stephen, and Ben Wilkin)
+ * Date: Oct 18, 2026
+ * Purpose: Keeps the MazeModels of recently loaded mazes, so opening the same
+ *          file again does not read and work it all out again. Models are
+ *          never changed, so one can be handed out any number of times.
+ *          A model is kept under a key made from the file's canonical path,
+ *          last modified time and length, so a file that has changed on disk
+ *          is simply a miss. The key of a played file also covers its
+ *          autosave log, since moves in the log are part of the model.
+ *          The cache holds models up to a limit on their total size in bytes
+ *          and drops the least recently used first. It may be used from any
+ *          thread.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class MazeCache
+{
+  public static final long DEFAULT_LIMIT_BYTES = 64L * 1024 * 1024;
+
+  private long limitBytes;
+  private long sizeBytes = 0;
+  // In order of use, least recent first
+  private LinkedHashMap<String, MazeModel> models =
+    new LinkedHashMap<>(16, 0.75f, true);
+  private long hits = 0;
+  private long misses = 0;
+
+  public MazeCache()
+  {
+    this(DEFAULT_LIMIT_BYTES);
+  }
+
+  public MazeCache(long limitBytes)
+  {
+    this.limitBytes = limitBytes;
+  }
+
+  // The key for a maze file
+  public static String fileKey(String name) throws IOException
+  {
+    File file = new File(name);
+    File log = AutosaveLog.logFile(file);
+    return file.getCanonicalPath() + "|" + file.lastModified() + "|" +
+           file.length() + "|" + log.lastModified() + "|" + log.length();
+  }
+
+  // The key for a maze in a pack. A pack is only read, so has no log.
+  public static String packKey(MZEPack pack, int index) throws IOException
+  {
+    File file = new File(pack.getName());
+    return file.getCanonicalPath() + "|" + file.lastModified() + "|" +
+           file.length() + "#" + index;
+  }
+
+  // The model kept under key, or null if there is none
+  public synchronized MazeModel get(String key)
+  {
+    MazeModel model = models.get(key);
+    if(model == null)
+    {
+      misses++;
+    }
+    else
+    {
+      hits++;
+    }
+    return model;
+  }
+
+  // Keeps a model, dropping the least recently used ones if that goes over
+  // the limit. A model too big to fit on its own is not kept.
+  public synchronized void put(String key, MazeModel model)
+  {
+    if(model.getSizeInBytes() > limitBytes)
+    {
+      return;
+    }
+    MazeModel old = models.put(key, model);
+    if(old != null)
+    {
+      sizeBytes -= old.getSizeInBytes();
+    }
+    sizeBytes += model.getSizeInBytes();
+
+    Iterator<Map.Entry<String, MazeModel>> oldest =
+      models.entrySet().iterator();
+    while(sizeBytes > limitBytes)
+    {
+      sizeBytes -= oldest.next().getValue().getSizeInBytes();
+      oldest.remove();
+    }
+  }
+
+  public synchronized void clear()
+  {
+    models.clear();
+    sizeBytes = 0;
+  }
+
+  public synchronized long getHits()
+  {
+    return hits;
+  }
+
+  public synchronized long getMisses()
+  {
+    return misses;
+  }
+
+  public synchronized int getNumModels()
+  {
+    return models.size();
+  }
+
+  // Estimated bytes held by the models kept
+  public synchronized long getSizeInBytes()
+  {
+    return sizeBytes;
+  }
+
+  public long getLimitBytes()
+  {
+    return limitBytes;
+  }
+
+};
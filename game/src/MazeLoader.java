@@ -0,0 +1,146 @@
+/**
+ * MazeLoader.java
+ * @author Group J (Ryan Harding, Michael Pate, Adeline Reichert, Austin
+ *                  Stephen, and Ben Wilkin)
+ * Date: Oct 18, 2026
+ * Purpose: Reads a maze file, or a maze out of a pack, on a background
+ *          thread and builds its MazeModel there too, so the window keeps
+ *          drawing and answering clicks however big the maze is. Only the
+ *          finished model (or what went wrong) is handed back, on the event
+ *          thread. Progress runs from 0 to 100: reading the file takes it to
+ *          READ_PERCENT, working out each tile's lines to TILES_PERCENT, and
+ *          building the edge index, which is the slowest part of a big maze,
+ *          the rest of the way.
+ *          Given a MazeCache, the loader hands back a kept model when the
+ *          file has not changed, and keeps each model it builds.
+ */
+
+import java.io.File;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import javax.swing.SwingWorker;
+
+public class MazeLoader extends SwingWorker<MazeModel, Void>
+                        implements MazeModel.Progress
+{
+  // Files at least this big are worth showing progress for
+  public static final long LARGE_FILE_SIZE = 1024 * 1024;
+  public static final int READ_PERCENT = 10;
+  public static final int TILES_PERCENT = 40;
+
+  private String name;
+  private MZEPack pack;
+  private int index;
+  private Listener listener;
+  private MazeCache cache;
+
+  // Told how the load went, on the event thread
+  public interface Listener
+  {
+    void loaded(MazeModel model);
+
+    // e is a CancellationException if the load was cancelled
+    void failed(Exception e);
+  }
+
+  // cache may be null to always read the file
+  public MazeLoader(String name, MazeCache cache, Listener listener)
+  {
+    this.name = name;
+    this.cache = cache;
+    this.listener = listener;
+  }
+
+  public MazeLoader(MZEPack pack, int index, MazeCache cache,
+                    Listener listener)
+  {
+    this.name = pack.getEntryName(index);
+    this.pack = pack;
+    this.index = index;
+    this.cache = cache;
+    this.listener = listener;
+  }
+
+  public String getName()
+  {
+    return name;
+  }
+
+  // True for a big file or a maze out of a pack
+  public boolean isLarge()
+  {
+    return pack != null || new File(name).length() >= LARGE_FILE_SIZE;
+  }
+
+  @Override
+  protected MazeModel doInBackground() throws Exception
+  {
+    String key = null;
+    if(cache != null)
+    {
+      // looking at the file on disk is done here too, off the event thread
+      key = pack == null ? MazeCache.fileKey(name)
+                         : MazeCache.packKey(pack, index);
+      MazeModel kept = cache.get(key);
+      if(kept != null)
+      {
+        return kept;
+      }
+    }
+
+    MZEReader reader = pack == null ? new MZEReader(name, null)
+                                    : new MZEReader(pack, index, null);
+    setProgress(READ_PERCENT);
+    MazeModel model = new MazeModel(reader, this);
+    if(cache != null)
+    {
+      cache.put(key, model);
+    }
+    return model;
+  }
+
+  @Override
+  public void tilesDone(int done, int numTiles)
+  {
+    if(isCancelled())
+    {
+      throw(new CancellationException());
+    }
+    int percent = READ_PERCENT +
+                  (int)((long)(TILES_PERCENT - READ_PERCENT) * done / numTiles);
+    // only a change is passed on, so this costs next to nothing per tile
+    if(percent != getProgress())
+    {
+      setProgress(percent);
+    }
+  }
+
+  @Override
+  protected void done()
+  {
+    MazeModel model;
+    try
+    {
+      model = get();
+    }
+    catch(ExecutionException e)
+    {
+      Throwable cause = e.getCause();
+      listener.failed(cause instanceof Exception ? (Exception)cause : e);
+      return;
+    }
+    catch(CancellationException e)
+    {
+      listener.failed(e);
+      return;
+    }
+    catch(InterruptedException e)
+    {
+      // done() runs once the work is over, so get() never waits
+      listener.failed(e);
+      return;
+    }
+    listener.loaded(model);
+  }
+
+};
@@ -0,0 +1,135 @@
+/**
+ * MazeModel.java
+ * @author Group J (Ryan Harding, Michael Pate, Adeline Reichert, Austin
+ *                  Stephen, and Ben Wilkin)
+ * Date: Oct 18, 2026
+ * Purpose: Everything the game needs from a maze file once it has been read:
+ *          where each tile was and which way up, the time played, and the
+ *          tiles' lines with their edge index all worked out. Nothing in it
+ *          changes after it is built, so it can be built on one thread and
+ *          handed to another (see MazeLoader) without any locking.
+ */
+
+public final class MazeModel
+{
+  // Rough bytes each tile takes besides its coordinates: its placement and
+  // rotation, the headers of its geometry's arrays, and its share of the
+  // edge index
+  private static final int TILE_OVERHEAD_BYTES = 256;
+
+  private final String name;
+  private final boolean played;
+  private final boolean inPack;
+  private final long timeMillis;
+  private final long fileTimeMillis;
+  private final int[] placements;
+  private final int[] rotations;
+  private final TileGeometry[] geometries;
+  private final EdgeIndex edgeIndex;
+  private final long sizeInBytes;
+
+  // Told how far through the tiles the model is while it is being built
+  public interface Progress
+  {
+    void tilesDone(int done, int numTiles);
+  }
+
+  // Gathers the lines of every tile in every orientation. progress, if not
+  // null, is told how many tiles are done as it goes.
+  public MazeModel(MZEReader reader, Progress progress)
+  {
+    name = reader.getName();
+    played = reader.isPlayed();
+    inPack = reader.isInPack();
+    timeMillis = reader.readFileTimeMillis();
+    fileTimeMillis = reader.getFileTimeMillis();
+
+    int numTiles = reader.getNumTiles();
+    placements = new int[numTiles];
+    rotations = new int[numTiles];
+    geometries = new TileGeometry[numTiles];
+    long bytes = (long)TILE_OVERHEAD_BYTES * numTiles;
+    for(int i = 0; i < numTiles; i++)
+    {
+      placements[i] = reader.readFilePlacement(i);
+      rotations[i] = reader.readFileRotation(i);
+      geometries[i] = reader.readFileGeometry(i);
+      // four orientations of four byte floats
+      bytes += 16L * geometries[i].getCoordinates(0).length;
+      if(progress != null)
+      {
+        progress.tilesDone(i + 1, numTiles);
+      }
+    }
+    edgeIndex = new EdgeIndex(geometries);
+    sizeInBytes = bytes;
+  }
+
+  public String getName()
+  {
+    return name;
+  }
+
+  // True for a game saved part way through, false for an original maze
+  public boolean isPlayed()
+  {
+    return played;
+  }
+
+  // True if the maze was read out of a pack, so getName() is not a file
+  public boolean isInPack()
+  {
+    return inPack;
+  }
+
+  public int getNumTiles()
+  {
+    return geometries.length;
+  }
+
+  // Milliseconds played so far, including any autosaved moves
+  public long getTimeMillis()
+  {
+    return timeMillis;
+  }
+
+  // The time written in the file itself, which its autosave log follows
+  // on from
+  public long getFileTimeMillis()
+  {
+    return fileTimeMillis;
+  }
+
+  // The slot a tile was in, or -1 for an original maze
+  public int getPlacement(int tile)
+  {
+    return placements[tile];
+  }
+
+  // How many quarter turns a tile was turned, or -1 for an original maze
+  public int getRotation(int tile)
+  {
+    return rotations[tile];
+  }
+
+  // Lines of a tile in all four orientations
+  public TileGeometry getGeometry(int tile)
+  {
+    return geometries[tile];
+  }
+
+  // Where each tile's lines meet its edges, for fitting tiles together
+  public EdgeIndex getEdgeIndex()
+  {
+    return edgeIndex;
+  }
+
+  // Roughly how much memory the model takes, for MazeCache. Sets of fitting
+  // choices the edge index builds later on are not counted, and geometries
+  // shared with other models (see GeometryPool) are counted in full.
+  public long getSizeInBytes()
+  {
+    return sizeInBytes;
+  }
+
+};
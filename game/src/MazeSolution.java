@@ -0,0 +1,47 @@
+/**
+ * MazeSolution.java
+ * @author Group J (Ryan Harding, Michael Pate, Adeline Reichert, Austin
+ *                  Stephen, and Ben Wilkin)
+ * Date: Oct 18, 2026
+ * Purpose: An answer found by MazeSolver: the tile and orientation for each
+ *          cell of the game field, in row major order.
+ */
+
+public class MazeSolution
+{
+  private int[] cellTile;
+  private int[] cellOrientation;
+
+  MazeSolution(int[] cellTile, int[] cellOrientation)
+  {
+    this.cellTile = cellTile;
+    this.cellOrientation = cellOrientation;
+  }
+
+  public int getNumCells()
+  {
+    return cellTile.length;
+  }
+
+  public int getTile(int cell)
+  {
+    return cellTile[cell];
+  }
+
+  public int getOrientation(int cell)
+  {
+    return cellOrientation[cell];
+  }
+
+  // Clears state and lays the solution out on its game field
+  public void applyTo(GameState state)
+  {
+    state.clear();
+    for(int cell = 0; cell < cellTile.length; cell++)
+    {
+      state.placeTile(cellTile[cell], state.fieldSlot(cell),
+                      cellOrientation[cell]);
+    }
+  }
+
+};
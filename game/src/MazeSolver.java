@@ -0,0 +1,280 @@
+/**
+ * MazeSolver.java
+ * @author Group J (Ryan Harding, Michael Pate, Adeline Reichert, Austin
+ *                  Stephen, and Ben Wilkin)
+ * Date: Oct 18, 2026
+ * Purpose: Works out where every tile of a maze goes, and which way up, from
+ *          nothing but the lines on the tiles.
+ *          The field is filled a cell at a time in row major order, and each
+ *          cell only tries the (tile, orientation) choices whose edges fit
+ *          the tiles already to its left and above it (see EdgeSignature),
+ *          and whose sides on the outside of the field are walled. The sets
+ *          of choices come from an EdgeIndex as bits in long arrays, so
+ *          narrowing the choices for a cell is an and of a few words. The
+ *          choices for the first cell are each searched as a separate task
+ *          on a ForkJoinPool.
+ *          Edges alone seldom pin down one answer for a hand drawn maze, so
+ *          the answer given is always the first in file order: each cell
+ *          tries the lowest numbered tile first, the right way up first, and
+ *          a task only stops the tasks after it. An original file keeps its
+ *          tiles in order of their home, so it comes out as it was drawn.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class MazeSolver
+{
+  // How many placements a search makes between checks for an earlier task
+  // having already finished
+  private static final int STOP_CHECK_NODES = 1024;
+  private static final int NONE_FOUND = Integer.MAX_VALUE;
+
+  private int numTiles;
+  private int cols;
+  // Number of choices (see EdgeIndex) and the longs needed to hold a set
+  private int numChoices;
+  private int words;
+  private EdgeIndex index;
+  // Choices walled on a side, for cells on the edge of the field
+  private long[][] outsideSide = new long[4][];
+  private long[] allChoices;
+
+  // The answer each task found, and the first task that has found one
+  private MazeSolution[] found;
+  private AtomicInteger firstFound = new AtomicInteger(NONE_FOUND);
+  private LongAdder nodes = new LongAdder();
+
+  public MazeSolver(TileGeometry[] geometries)
+  {
+    this(new EdgeIndex(geometries));
+  }
+
+  public MazeSolver(EdgeIndex index)
+  {
+    this(index, BoardPanel.fieldColumns(index.getNumTiles()));
+  }
+
+  public MazeSolver(EdgeIndex index, int cols)
+  {
+    this.index = index;
+    this.cols = cols;
+    numTiles = index.getNumTiles();
+    numChoices = index.getNumChoices();
+    words = index.getWords();
+
+    allChoices = new long[words];
+    for(int side = 0; side < 4; side++)
+    {
+      outsideSide[side] = new long[words];
+    }
+    for(int choice = 0; choice < numChoices; choice++)
+    {
+      set(allChoices, choice);
+      for(int side = 0; side < 4; side++)
+      {
+        if(EdgeSignature.isOutside(index.getSignature(choice, side)))
+        {
+          set(outsideSide[side], choice);
+        }
+      }
+    }
+  }
+
+  public MazeSolution solve()
+  {
+    return solve(ForkJoinPool.commonPool());
+  }
+
+  // Returns the first solution in file order, or null if the tiles cannot
+  // be fitted together
+  public MazeSolution solve(ForkJoinPool pool)
+  {
+    firstFound.set(NONE_FOUND);
+    nodes.reset();
+    if(numTiles == 0)
+    {
+      return null;
+    }
+    found = new MazeSolution[numChoices];
+    int[] placed = new int[numTiles];
+    long[] free = allChoices.clone();
+    pool.invoke(new SplitTask(placed, free));
+    int first = firstFound.get();
+    return first == NONE_FOUND ? null : found[first];
+  }
+
+  // Number of placements tried by the last solve
+  public long getNodes()
+  {
+    return nodes.sum();
+  }
+
+  // Tries each choice for the first cell as its own task
+  private class SplitTask extends RecursiveAction
+  {
+    public static final long serialVersionUID=1;
+    private int[] placed;
+    private long[] free;
+
+    SplitTask(int[] placed, long[] free)
+    {
+      this.placed = placed;
+      this.free = free;
+    }
+
+    protected void compute()
+    {
+      List<SearchTask> tasks = new ArrayList<>();
+      for(int tried = nextChoice(0, placed, free, 0); tried >= 0;
+          tried = nextChoice(0, placed, free, tried + 1))
+      {
+        int[] subPlaced = placed.clone();
+        long[] subFree = free.clone();
+        subPlaced[0] = tried;
+        useTile(subFree, tried / 4);
+        tasks.add(new SearchTask(subPlaced, subFree, tried));
+      }
+      invokeAll(tasks);
+    }
+  };
+
+  // Fills in the rest of the field after the first cell
+  private class SearchTask extends RecursiveAction
+  {
+    public static final long serialVersionUID=1;
+    private int[] placed;
+    private long[] free;
+    // The choice in the first cell, which orders the tasks
+    private int task;
+
+    SearchTask(int[] placed, long[] free, int task)
+    {
+      this.placed = placed;
+      this.free = free;
+      this.task = task;
+    }
+
+    protected void compute()
+    {
+      if(firstFound.get() > task)
+      {
+        search(placed, free, task);
+      }
+    }
+  };
+
+  // Depth first search from cell 1, done with a loop rather than recursion
+  // so big fields cannot run out of stack
+  private void search(int[] placed, long[] free, int task)
+  {
+    // the choice each cell is on, see nextChoice
+    int[] tried = new int[numTiles];
+    long count = 1;
+    int cell = 1;
+    int from = 0;
+    while(cell > 0)
+    {
+      if(cell == numTiles)
+      {
+        finish(placed, task);
+        break;
+      }
+      tried[cell] = nextChoice(cell, placed, free, from);
+      if(tried[cell] < 0)
+      {
+        // nothing fits here, so take back the cell before and move on
+        cell--;
+        if(cell > 0)
+        {
+          freeTile(free, placed[cell] / 4);
+        }
+        from = tried[cell] + 1;
+        continue;
+      }
+      placed[cell] = tried[cell];
+      useTile(free, tried[cell] / 4);
+      cell++;
+      from = 0;
+      count++;
+      if(count % STOP_CHECK_NODES == 0 && firstFound.get() < task)
+      {
+        break;
+      }
+    }
+    nodes.add(count);
+  }
+
+  private void finish(int[] placed, int task)
+  {
+    int[] cellTile = new int[numTiles];
+    int[] cellOrientation = new int[numTiles];
+    for(int cell = 0; cell < numTiles; cell++)
+    {
+      cellTile[cell] = placed[cell] / 4;
+      cellOrientation[cell] = placed[cell] % 4;
+    }
+    found[task] = new MazeSolution(cellTile, cellOrientation);
+    // tasks after this one can stop, but ones before it may still find an
+    // earlier answer
+    int first = firstFound.get();
+    while(task < first && !firstFound.compareAndSet(first, task))
+    {
+      first = firstFound.get();
+    }
+  }
+
+  // Finds the first choice from on that can go in cell, or returns -1.
+  // Choices are numbered tile*4+orientation, so lower numbered tiles are
+  // tried first, each the right way up first.
+  private int nextChoice(int cell, int[] placed, long[] free, int from)
+  {
+    int col = cell % cols;
+    long[] left = col == 0 ? outsideSide[EdgeSignature.LEFT]
+                           : index.getFitting(placed[cell-1],
+                                              EdgeSignature.RIGHT);
+    long[] top = cell < cols ? outsideSide[EdgeSignature.TOP]
+                             : index.getFitting(placed[cell-cols],
+                                                EdgeSignature.BOTTOM);
+    long[] right = col == cols - 1 || cell == numTiles - 1 ?
+                   outsideSide[EdgeSignature.RIGHT] : allChoices;
+    long[] bottom = cell + cols >= numTiles ?
+                    outsideSide[EdgeSignature.BOTTOM] : allChoices;
+    for(int word = from >>> 6; word < words; word++)
+    {
+      long bits = free[word] & left[word] & top[word] & right[word] &
+                  bottom[word];
+      if(word == from >>> 6)
+      {
+        bits &= -1L << (from & 63);
+      }
+      if(bits != 0)
+      {
+        return word * 64 + Long.numberOfTrailingZeros(bits);
+      }
+    }
+    return -1;
+  }
+
+  private static void set(long[] set, int choice)
+  {
+    set[choice >>> 6] |= 1L << (choice & 63);
+  }
+
+  // A tile's four orientations are next to each other, so they are always
+  // in the same long
+  private static void useTile(long[] free, int tile)
+  {
+    free[tile >>> 4] &= ~(0xFL << ((tile & 15) * 4));
+  }
+
+  private static void freeTile(long[] free, int tile)
+  {
+    free[tile >>> 4] |= 0xFL << ((tile & 15) * 4);
+  }
+
+};
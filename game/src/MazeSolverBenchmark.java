@@ -0,0 +1,385 @@
+/**
+ * MazeSolverBenchmark.java
+ * @author Group J (Ryan Harding, Michael Pate, Adeline Reichert, Austin
+ *                  Stephen, and Ben Wilkin)
+ * Date: Oct 18, 2026
+ * Purpose: Times MazeSolver on made up mazes of growing size and prints how
+ *          many boards and placements it gets through a second.
+ *          Run with no arguments for the standard sizes and the mazes in
+ *          the game's input folder, or give board widths and .mze files to
+ *          time those instead, e.g.
+ *            java MazeSolverBenchmark 8 32 input/default.mze
+ *          The made up mazes are drawn the way the game's mazes are: walled
+ *          all round the outside, and each wall on the line between two
+ *          cells drawn by one of them only. They are then shuffled and
+ *          turned at random. A maze file's answer is known, since its tiles
+ *          are kept in order of their home, so the solver's answer for one
+ *          must solve the game or the run stops.
+ */
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class MazeSolverBenchmark
+{
+  // Sitting against a side only asks that walls do not overlap, which says
+  // far less than matching it would, so boards much over 24 wide have too
+  // many near answers to search in reasonable time
+  private static final int[] DEFAULT_WIDTHS = {4, 8, 16, 24};
+  // Where the game looks for mazes, as in GameWindow
+  private static final String INPUT_FOLDER = "../game/input";
+  // Each size is solved over and over for at least this long
+  private static final long RUN_NANOS = 1000000000L;
+  // Places along an edge where a made up wall can be drawn: every signature
+  // place but the corners
+  private static final int PLACES = EdgeSignature.BINS - 2;
+  // Chance of a wall at each place on the line between two cells. Edges need
+  // to differ enough that a board has about one answer. With only a few
+  // kinds of edge, made up boards have huge numbers of near answers and
+  // take exponentially long to search, so every place is walled by one
+  // cell or the other.
+  private static final double WALL_CHANCE = 1.0;
+  // How far in from the edge walls along it are drawn, as in the game's
+  // mazes
+  private static final float INSET = 1f;
+
+  public static void main(String[] args) throws Exception
+  {
+    Random random = new Random(42);
+    List<String> runs = new ArrayList<>();
+    if(args.length == 0)
+    {
+      for(int width : DEFAULT_WIDTHS)
+      {
+        runs.add(String.valueOf(width));
+      }
+      // and the game's own mazes, whose answers are checked
+      File[] mazes = new File(INPUT_FOLDER).listFiles();
+      if(mazes != null)
+      {
+        Arrays.sort(mazes);
+        for(File maze : mazes)
+        {
+          if(isMazeFile(maze.getName()))
+          {
+            runs.add(maze.getPath());
+          }
+        }
+      }
+    }
+    else
+    {
+      for(String arg : args)
+      {
+        runs.add(arg);
+      }
+    }
+
+    System.out.println("threads: " +
+                       ForkJoinPool.getCommonPoolParallelism());
+    System.out.printf("%-24s %7s %10s %12s %14s%n", "maze", "tiles",
+                      "ms/solve", "solves/s", "placements/s");
+    for(String run : runs)
+    {
+      TileGeometry[] geometries;
+      boolean inHomeOrder = isMazeFile(run);
+      if(inHomeOrder)
+      {
+        try
+        {
+          geometries = load(run);
+        }
+        catch(InvalidMazeFileException e)
+        {
+          System.out.printf("%-24s   not a maze file%n", run);
+          continue;
+        }
+      }
+      else
+      {
+        int width = Integer.parseInt(run);
+        geometries = generate(width, random);
+        run = width + "x" + width;
+      }
+      time(run, geometries, inHomeOrder);
+    }
+  }
+
+  private static boolean isMazeFile(String name)
+  {
+    return name.endsWith(".mze") || name.endsWith(MZEFormat.V2_SUFFIX);
+  }
+
+  // inHomeOrder is set for tiles out of a maze file, whose answer is every
+  // tile in its own cell the right way up
+  private static void time(String name, TileGeometry[] geometries,
+                           boolean inHomeOrder)
+  {
+    if(inHomeOrder)
+    {
+      checkHomeLayout(name, new EdgeIndex(geometries));
+    }
+    // Building the solver is part of the cost of solving a new maze
+    MazeSolver solver = new MazeSolver(geometries);
+    MazeSolution solution = solver.solve();
+    if(solution == null)
+    {
+      System.out.printf("%-24s %7d   no solution after %d placements%n",
+                        name, geometries.length, solver.getNodes());
+      return;
+    }
+    if(!isValid(solution, geometries))
+    {
+      throw(new IllegalStateException("bad solution for " + name));
+    }
+    if(inHomeOrder && !solvesGame(solution))
+    {
+      throw(new IllegalStateException("solution for " + name +
+                                      " does not solve the game"));
+    }
+
+    long solves = 0;
+    long placements = 0;
+    long start = System.nanoTime();
+    long elapsed;
+    do
+    {
+      solver = new MazeSolver(geometries);
+      solver.solve();
+      placements += solver.getNodes();
+      solves++;
+      elapsed = System.nanoTime() - start;
+    } while(elapsed < RUN_NANOS);
+
+    double seconds = elapsed / 1e9;
+    System.out.printf("%-24s %7d %10.3f %12.1f %14.0f%n", name,
+                      geometries.length, seconds * 1000 / solves,
+                      solves / seconds, placements / seconds);
+  }
+
+  // Every tile used once and every edge fitting its neighbour
+  private static boolean isValid(MazeSolution solution,
+                                 TileGeometry[] geometries)
+  {
+    int numTiles = geometries.length;
+    int cols = BoardPanel.fieldColumns(numTiles);
+    EdgeIndex index = new EdgeIndex(geometries);
+    boolean[] used = new boolean[numTiles];
+    for(int cell = 0; cell < numTiles; cell++)
+    {
+      int tile = solution.getTile(cell);
+      int orientation = solution.getOrientation(cell);
+      if(used[tile])
+      {
+        return false;
+      }
+      used[tile] = true;
+      if(cell % cols != 0 &&
+         !index.fits(solution.getTile(cell-1),
+                     solution.getOrientation(cell-1), EdgeSignature.RIGHT,
+                     tile, orientation))
+      {
+        return false;
+      }
+      if(cell >= cols &&
+         !index.fits(solution.getTile(cell-cols),
+                     solution.getOrientation(cell-cols),
+                     EdgeSignature.BOTTOM, tile, orientation))
+      {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // Every tile in its own cell the right way up must fit its neighbours and
+  // be walled where it is on the outside, or the index would turn down the
+  // real answer
+  private static void checkHomeLayout(String name, EdgeIndex index)
+  {
+    int numTiles = index.getNumTiles();
+    int cols = BoardPanel.fieldColumns(numTiles);
+    for(int tile = 0; tile < numTiles; tile++)
+    {
+      int col = tile % cols;
+      boolean rightEdge = col == cols - 1 || tile == numTiles - 1;
+      boolean bottomEdge = tile + cols >= numTiles;
+      if(!rightEdge && 
+         !index.fits(tile, 0, EdgeSignature.RIGHT, tile + 1, 0))
+      {
+        throw(new IllegalStateException(name + ": tiles " + tile + 
+                                        " and " + (tile + 1) + 
+                                        " do not fit side by side"));
+      }
+      if(!bottomEdge && 
+         !index.fits(tile, 0, EdgeSignature.BOTTOM, tile + cols, 0))
+      {
+        throw(new IllegalStateException(name + ": tiles " + tile + 
+                                        " and " + (tile + cols) + 
+                                        " do not fit one above the other"));
+      }
+      if((tile < cols && !index.isOutside(tile, 0, EdgeSignature.TOP)) ||
+         (col == 0 && !index.isOutside(tile, 0, EdgeSignature.LEFT)) ||
+         (rightEdge && !index.isOutside(tile, 0, EdgeSignature.RIGHT)) ||
+         (bottomEdge && !index.isOutside(tile, 0, EdgeSignature.BOTTOM)))
+      {
+        throw(new IllegalStateException(name + ": tile " + tile + 
+                                        " is not walled on the outside"));
+      }
+    }
+  }
+
+  // Lays the solution out on a game field and asks the game if it is solved
+  private static boolean solvesGame(MazeSolution solution)
+  {
+    GameState state = new GameState(solution.getNumCells());
+    solution.applyTo(state);
+    return state.isSolved();
+  }
+
+  // The tiles the right way up. Where a played file's player left them does
+  // not matter to the answer.
+  private static TileGeometry[] load(String name) throws Exception
+  {
+    MZETileIterator tiles = MZETileIterator.open(name);
+    TileGeometry[] geometries = new TileGeometry[tiles.getNumTiles()];
+    while(tiles.hasNext())
+    {
+      MZETileRecord tile = tiles.next();
+      geometries[tile.getTileNum()] =
+        new TileGeometry(tile.getCoordinateList());
+    }
+    return geometries;
+  }
+
+  // A width by width maze with a random set of walls on the line between
+  // each two cells, shuffled and turned at random
+  private static TileGeometry[] generate(int width, Random random)
+  {
+    int numTiles = width * width;
+    // walls drawn by each cell along each of its sides
+    int[][] walls = new int[numTiles][4];
+    for(int cell = 0; cell < numTiles; cell++)
+    {
+      int col = cell % width;
+      if(cell < width)
+      {
+        walls[cell][EdgeSignature.TOP] = -1;
+      }
+      if(cell + width >= numTiles)
+      {
+        walls[cell][EdgeSignature.BOTTOM] = -1;
+      }
+      if(col == 0)
+      {
+        walls[cell][EdgeSignature.LEFT] = -1;
+      }
+      if(col == width - 1)
+      {
+        walls[cell][EdgeSignature.RIGHT] = -1;
+      }
+      else
+      {
+        shareWalls(random, walls[cell], EdgeSignature.RIGHT,
+                   walls[cell+1], EdgeSignature.LEFT);
+      }
+      if(cell + width < numTiles)
+      {
+        shareWalls(random, walls[cell], EdgeSignature.BOTTOM,
+                   walls[cell+width], EdgeSignature.TOP);
+      }
+    }
+
+    TileGeometry[] geometries = new TileGeometry[numTiles];
+    List<Integer> order = new ArrayList<>();
+    for(int cell = 0; cell < numTiles; cell++)
+    {
+      order.add(cell);
+    }
+    Collections.shuffle(order, random);
+    for(int cell = 0; cell < numTiles; cell++)
+    {
+      TileGeometry geometry = new TileGeometry(wallLines(walls[cell]));
+      geometries[order.get(cell)] =
+        new TileGeometry(geometry.getCoordinates(random.nextInt(4)));
+    }
+    return geometries;
+  }
+
+  // Puts a random set of walls on the line between two cells, each drawn
+  // by one cell or the other
+  private static void shareWalls(Random random, int[] a, int sideA, int[] b,
+                                 int sideB)
+  {
+    for(int place = 0; place < PLACES; place++)
+    {
+      if(random.nextDouble() >= WALL_CHANCE)
+      {
+        continue;
+      }
+      if(random.nextBoolean())
+      {
+        a[sideA] |= 1 << place;
+      }
+      else
+      {
+        b[sideB] |= 1 << place;
+      }
+    }
+  }
+
+  // Lines for the walls of each side. -1 is a wall the whole way along, as
+  // on the outside of the maze.
+  private static float[] wallLines(int[] sides)
+  {
+    List<float[]> lines = new ArrayList<>();
+    float edge = Tile.TILE_SPACE;
+    float step = edge / (EdgeSignature.BINS - 1);
+    for(int side = 0; side < 4; side++)
+    {
+      if(sides[side] == -1)
+      {
+        lines.add(along(side, INSET, edge - INSET));
+        continue;
+      }
+      for(int place = 0; place < PLACES; place++)
+      {
+        if((sides[side] & (1 << place)) != 0)
+        {
+          // a short wall right on the place's signature bin
+          float at = step * (place + 1);
+          lines.add(along(side, at - 1, at + 1));
+        }
+      }
+    }
+    float[] coordinates = new float[lines.size() * 4];
+    for(int i = 0; i < lines.size(); i++)
+    {
+      System.arraycopy(lines.get(i), 0, coordinates, i * 4, 4);
+    }
+    return coordinates;
+  }
+
+  // A line along one side, INSET in from it, between two positions along it
+  private static float[] along(int side, float from, float to)
+  {
+    float far = Tile.TILE_SPACE - INSET;
+    switch(side)
+    {
+      case EdgeSignature.TOP:
+        return new float[] {from, INSET, to, INSET};
+      case EdgeSignature.RIGHT:
+        return new float[] {far, from, far, to};
+      case EdgeSignature.BOTTOM:
+        return new float[] {from, far, to, far};
+      default:
+        return new float[] {INSET, from, INSET, to};
+    }
+  }
+
+};
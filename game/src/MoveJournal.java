@@ -0,0 +1,334 @@
+/**
+ * MoveJournal.java
+ * @author Group J (Ryan Harding, Michael Pate, Adeline Reichert, Austin
+ *                  Stephen, and Ben Wilkin)
+ * Date: Oct 18, 2026
+ * Purpose: The history of moves in a game, for undo and redo.
+ *          A move is packed into one long: the two slots it touched and how
+ *          many quarter turns it made. A move between two slots swaps them,
+ *          and a turn has the same slot twice. Moves are kept in a ring of
+ *          longs of fixed size, so recording, undoing and redoing a move
+ *          never allocates anything.
+ *          When the ring fills up, half of it is written out to a temporary
+ *          spill file, so even very long games can be undone all the way
+ *          back. Moves are stored in the file at eight bytes times their
+ *          number, and every move that is not in the ring is in the file.
+ *          If the file cannot be used, the oldest moves are forgotten
+ *          instead.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+public class MoveJournal
+{
+  public static final int DEFAULT_CAPACITY = 4096;
+  // Returned by undo and redo when there is nothing to do
+  public static final long NO_MOVE = -1L;
+
+  private static final int SLOT_BITS = 31;
+  private static final long SLOT_MASK = (1L << SLOT_BITS) - 1;
+
+  private long[] ring;
+  private int mask;
+  private int half;
+  // Moves lo up to (not including) hi are in the ring
+  private long lo;
+  private long hi;
+  // Number of moves in the journal, and how many of them are applied. The
+  // moves from applied on can be redone.
+  private long count;
+  private long applied;
+  // The first move that can still be undone
+  private long floor;
+
+  private boolean spillToDisk;
+  private File spillFile;
+  private FileChannel spill;
+  private ByteBuffer spillBuffer;
+
+  public MoveJournal()
+  {
+    this(DEFAULT_CAPACITY, true);
+  }
+
+  // capacity is rounded up to a power of two, and is at least 2
+  public MoveJournal(int capacity, boolean spillToDisk)
+  {
+    int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+    ring = new long[size];
+    mask = size - 1;
+    half = size / 2;
+    this.spillToDisk = spillToDisk;
+  }
+
+  public static long pack(int slotA, int slotB, int rotationDelta)
+  {
+    return ((long)slotA << (SLOT_BITS + 2)) | ((long)slotB << 2) |
+           (rotationDelta & 3);
+  }
+
+  // A swap of the contents of two slots
+  public static long swap(int slotA, int slotB)
+  {
+    return pack(slotA, slotB, 0);
+  }
+
+  // A quarter turn of the tile in a slot
+  public static long rotation(int slot)
+  {
+    return pack(slot, slot, 1);
+  }
+
+  public static int getSlotA(long move)
+  {
+    return (int)((move >>> (SLOT_BITS + 2)) & SLOT_MASK);
+  }
+
+  public static int getSlotB(long move)
+  {
+    return (int)((move >>> 2) & SLOT_MASK);
+  }
+
+  public static int getRotationDelta(long move)
+  {
+    return (int)(move & 3);
+  }
+
+  public boolean canUndo()
+  {
+    return applied > floor;
+  }
+
+  public boolean canRedo()
+  {
+    return applied < count;
+  }
+
+  // Adds a move that has just been made. Anything that could have been
+  // redone is dropped.
+  public void record(long move)
+  {
+    count = applied;
+    hi = Math.min(hi, count);
+    if(applied < lo || applied > hi)
+    {
+      // Everything before is in the spill file, so start the ring afresh
+      lo = applied;
+      hi = applied;
+    }
+    if(hi - lo == ring.length)
+    {
+      writeOut(lo, half);
+      lo += half;
+    }
+    ring[(int)(hi & mask)] = move;
+    hi++;
+    count++;
+    applied++;
+  }
+
+  // Steps back one move, returning it so the caller can reverse it, or
+  // NO_MOVE if there is nothing to undo
+  public long undo()
+  {
+    if(!canUndo())
+    {
+      return NO_MOVE;
+    }
+    applied--;
+    bringIn(applied);
+    if(applied < lo)
+    {
+      // could not be read back, so it is gone
+      floor = applied + 1;
+      applied++;
+      return NO_MOVE;
+    }
+    return ring[(int)(applied & mask)];
+  }
+
+  // Steps forward one move, returning it so the caller can make it again,
+  // or NO_MOVE if there is nothing to redo
+  public long redo()
+  {
+    if(!canRedo())
+    {
+      return NO_MOVE;
+    }
+    bringIn(applied);
+    if(applied >= hi)
+    {
+      count = applied;
+      return NO_MOVE;
+    }
+    return ring[(int)(applied++ & mask)];
+  }
+
+  // Forgets every move
+  public void clear()
+  {
+    lo = 0;
+    hi = 0;
+    count = 0;
+    applied = 0;
+    floor = 0;
+  }
+
+  // Deletes the spill file, if there is one
+  public void close()
+  {
+    clear();
+    if(spill != null)
+    {
+      try
+      {
+        spill.close();
+      }
+      catch(IOException e)
+      {
+        // nothing more can be done with it
+      }
+      spillFile.delete();
+      spill = null;
+    }
+  }
+
+  // Makes sure move number index is in the ring, sliding the ring half of
+  // its size at a time towards it
+  private void bringIn(long index)
+  {
+    while(index < lo)
+    {
+      long from = Math.max(floor, lo - half);
+      int length = (int)(lo - from);
+      if(length == 0)
+      {
+        return;
+      }
+      // make room by sending the newest moves out to the file
+      long excess = (hi - lo) + length - ring.length;
+      if(excess > 0)
+      {
+        writeOut(hi - excess, (int)excess);
+        hi -= excess;
+      }
+      if(!readIn(from, length))
+      {
+        return;
+      }
+      lo = from;
+    }
+    while(index >= hi && hi < count)
+    {
+      int length = (int)Math.min(half, count - hi);
+      long excess = (hi - lo) + length - ring.length;
+      if(excess > 0)
+      {
+        writeOut(lo, (int)excess);
+        lo += excess;
+      }
+      if(!readIn(hi, length))
+      {
+        return;
+      }
+      hi += length;
+    }
+  }
+
+  // Writes length moves from the ring, starting at move number from, to
+  // their place in the spill file. If that fails they are forgotten.
+  private void writeOut(long from, int length)
+  {
+    if(spillToDisk)
+    {
+      try
+      {
+        openSpill();
+        spillBuffer.clear();
+        for(long i = from; i < from + length; i++)
+        {
+          spillBuffer.putLong(ring[(int)(i & mask)]);
+        }
+        spillBuffer.flip();
+        long position = from * 8;
+        while(spillBuffer.hasRemaining())
+        {
+          position += spill.write(spillBuffer, position);
+        }
+        return;
+      }
+      catch(IOException e)
+      {
+        spillToDisk = false;
+      }
+    }
+    forget(from, length);
+  }
+
+  // Reads length moves, starting at move number from, back from the spill
+  // file into the ring. Returns false if they could not be read.
+  private boolean readIn(long from, int length)
+  {
+    if(spill == null)
+    {
+      return false;
+    }
+    try
+    {
+      spillBuffer.clear();
+      spillBuffer.limit(length * 8);
+      long position = from * 8;
+      while(spillBuffer.hasRemaining())
+      {
+        int read = spill.read(spillBuffer, position);
+        if(read < 0)
+        {
+          throw(new IOException("spill file is too short"));
+        }
+        position += read;
+      }
+      spillBuffer.flip();
+      for(long i = from; i < from + length; i++)
+      {
+        ring[(int)(i & mask)] = spillBuffer.getLong();
+      }
+      return true;
+    }
+    catch(IOException e)
+    {
+      spillToDisk = false;
+      floor = Math.max(floor, lo);
+      return false;
+    }
+  }
+
+  // Moves that can no longer be kept: older ones can no longer be undone,
+  // and newer ones can no longer be redone
+  private void forget(long from, int length)
+  {
+    if(from + length <= applied)
+    {
+      floor = Math.max(floor, from + length);
+    }
+    else
+    {
+      count = Math.min(count, from);
+    }
+  }
+
+  private void openSpill() throws IOException
+  {
+    if(spill == null)
+    {
+      spillFile = File.createTempFile("maze-journal", ".bin");
+      spillFile.deleteOnExit();
+      spill = new RandomAccessFile(spillFile, "rw").getChannel();
+      spillBuffer = ByteBuffer.allocateDirect(half * 8);
+    }
+  }
+
+};
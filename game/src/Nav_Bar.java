@@ -38,7 +38,7 @@ public class Nav_Bar
     buttonConstraint.insets = new Insets(10, 10, 10, 10);
 
     // Then we add the buttons using the constraint.
-    buttonConstraint.gridx = 2;
+    buttonConstraint.gridx = 5;
     buttonConstraint.gridy = 1;
     JButton quitButton = new JButton("Quit");
     buttonBar.add(quitButton, buttonConstraint);
@@ -57,6 +57,24 @@ public class Nav_Bar
     buttonBar.add(resetButton, buttonConstraint);
     resetButton.addActionListener(window);
 
+    buttonConstraint.gridx = 2;
+    buttonConstraint.gridy = 1;
+    JButton undoButton = new JButton("Undo");
+    buttonBar.add(undoButton, buttonConstraint);
+    undoButton.addActionListener(window);
+
+    buttonConstraint.gridx = 3;
+    buttonConstraint.gridy = 1;
+    JButton redoButton = new JButton("Redo");
+    buttonBar.add(redoButton, buttonConstraint);
+    redoButton.addActionListener(window);
+
+    buttonConstraint.gridx = 4;
+    buttonConstraint.gridy = 1;
+    JButton hintButton = new JButton("Hint");
+    buttonBar.add(hintButton, buttonConstraint);
+    hintButton.addActionListener(window);
+
     // This constraint determines where the buttonBar panel will go on the UI
     GridBagConstraints buttonBarConstraint = new GridBagConstraints();
     buttonBarConstraint.insets = new Insets(10, 0, 10, 1);
@@ -74,6 +92,12 @@ public class Nav_Bar
   }
   
   public void setVisibleTime(long inputSeconds)
+  {
+    this.timeLabel.setText(formatTime(inputSeconds));
+  }
+
+  // Formats a number of seconds as hh:mm:ss
+  public static String formatTime(long inputSeconds)
   {
     long hours = inputSeconds / 60;
     long seconds = inputSeconds % 60;
@@ -86,7 +110,7 @@ public class Nav_Bar
         (minutes<10)?"0"+Long.toString(minutes):Long.toString(minutes);
     String secondsText = 
         (seconds<10)?"0"+Long.toString(seconds):Long.toString(seconds);
-    this.timeLabel.setText(hoursText + ":" + minutesText + ":" + secondsText);
+    return hoursText + ":" + minutesText + ":" + secondsText;
   }
 
   //
@@ -13,9 +13,7 @@ import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.InputEvent;
 
-import javax.swing.BorderFactory;
 import java.awt.Color;
-import java.util.Timer;
 
 public class PanelClickListener implements MouseListener
 {
@@ -28,25 +26,42 @@ public class PanelClickListener implements MouseListener
     this.sourceWindow = g;
   }
 
+  // Listens to the BoardPanel, which works out which tile was clicked.
   // When a tile is clicked, it is selected (highlighted in red)
   // If another tile is already selected, when a tile is clicked, the
   // two tiles will swap images if one of the tiles is empty.
   @Override
   public void mouseClicked(MouseEvent e) 
   {
-    Tile source = (Tile)e.getSource();
+    BoardPanel board = (BoardPanel)e.getSource();
+    Tile source = board.tileAt(e.getPoint());
+    GameState state = sourceWindow.getGameState();
+
+    // A click between the slots deselects, like any other background click
+    if(source == null)
+    {
+      if(selectedFirst != null)
+      {
+        setBorderVisibility(selectedFirst);
+        selectedFirst = null;
+      }
+      rightClicked = false;
+      return;
+    }
+    int slot = source.getSlot();
 
     if(rightClicked)
     {
-      if(!source.isEmpty())
+      if(!state.isEmpty(slot))
       {
-        source.rotate90(1);
-        source.repaint();
+        state.rotate(slot);
+        sourceWindow.recordMove(MoveJournal.rotation(slot));
+        sourceWindow.showSlot(slot);
         sourceWindow.setGameAsChanged();
 
         if(selectedFirst != null)
         {
-          selectedFirst.setBorder(BorderFactory.createLineBorder(Color.red));
+          selectedFirst.setBorderColor(Color.red);
         }
       }
       rightClicked = false;
@@ -60,32 +75,30 @@ public class PanelClickListener implements MouseListener
     if(selectedFirst == null)
     {
       // If the clicked tile is a maze piece
-      if(!source.isEmpty())
+      if(!state.isEmpty(slot))
       {
         // Store it and highlight it in red
         selectedFirst = source;
-        source.setBorder(BorderFactory.createLineBorder(Color.red));
+        source.setBorderColor(Color.red);
       }
     }
 
     // If one tile is already selected...
     else
     {
+      int firstSlot = selectedFirst.getSlot();
+
       // If both selected tiles are maze pieces...
-      if(!source.isEmpty() && !selectedFirst.isEmpty())
+      if(!state.canMove(firstSlot, slot))
       {
         // If the clicked tile is different from the one selected, both tiles
         // will flash red, to indicate an illegal move has been attempted
         if(source != selectedFirst)
         {
-          Timer timer = new Timer();
-          TileFlasher tileFlasher = new TileFlasher();
-          tileFlasher.helper(selectedFirst, source, source.getBackground());
-
-          source.setBackground(Color.red);
-          selectedFirst.setBackground(Color.red);
-
-          timer.schedule(tileFlasher, 500);
+          Animator animator = sourceWindow.getAnimator();
+          animator.start(selectedFirst, new TileFlasher(selectedFirst, 
+                                                        Color.red));
+          animator.start(source, new TileFlasher(source, Color.red));
         }
         else
         {
@@ -95,20 +108,14 @@ public class PanelClickListener implements MouseListener
         return;
       }
 
-      // Swap the images on the two tiles
-      swapImages(selectedFirst, source);
+      // Move the maze piece into the empty slot, then redraw both slots
+      // (which also sets their border visibility)
+      state.swap(firstSlot, slot);
+      sourceWindow.recordMove(MoveJournal.swap(firstSlot, slot));
+      sourceWindow.showSlot(firstSlot);
+      sourceWindow.showSlot(slot);
       sourceWindow.setGameAsChanged();
 
-      // Swap the tiles' empty variable, so each Tile knows if it has a
-      // maze piece or is empty
-      boolean tempEmpty = selectedFirst.isEmpty();
-      selectedFirst.setEmpty(source.isEmpty());
-      source.setEmpty(tempEmpty);
-
-      // Determine new border visibility
-      setBorderVisibility(selectedFirst);
-      setBorderVisibility(source);
-
       // Reset so that the PanelClickListener knows no tiles are selected
       selectedFirst = null;
 
@@ -146,25 +153,6 @@ public class PanelClickListener implements MouseListener
     // TODO Auto-generated method stub
   }
 
-  // Helper function to swap the images on two selected tiles
-  private void swapImages(Tile t1, Tile t2)
-  {
-    float[] tempFloatArr = t1.getLineCoordinateList();
-    t1.setLineCoordinateList(t2.getLineCoordinateList());
-    t2.setLineCoordinateList(tempFloatArr);
-    
-    int tempOrientation = t1.getOrientation();
-    t1.setOrientation(t2.getOrientation());
-    t2.setOrientation(tempOrientation);
-    
-    int tempHome = t1.getHome();
-    t1.setHome(t2.getHome());
-    t2.setHome(tempHome);
-
-    t1.repaint();
-    t2.repaint();
-  }
-
   // Helper function to reset highlighting and ensure that maze pieces never 
   // have a border
   private void setBorderVisibility(Tile t1)
@@ -172,12 +160,12 @@ public class PanelClickListener implements MouseListener
     // If the tile is an empty piece, turn on its border. 
     if(t1.isEmpty())
     {
-      t1.setBorder(BorderFactory.createLineBorder(Color.black));
+      t1.setBorderColor(Color.black);
     }
     // If the tile is a maze piece, turn off its border.
     else
     {
-      t1.setBorder(BorderFactory.createEmptyBorder());
+      t1.setBorderColor(null);
     }
   }
 
@@ -3,52 +3,56 @@
  * @author Group J (Ryan Harding, Michael Pate, Adeline Reichert, Austin
  *                  Stephen, and Ben Wilkin)
  * Date: Apr 30, 2021
- * Purpose: Class of type tile which allows each of the 32 tile slots to know
+ * Purpose: Class of type tile which allows each of the tile slots to know
  *          and communicate if they contain a maze piece or empty image, and if
  *          they contain a maze piece, what the coordinates of all their maze
  *          lines are and their current orientation. Additionally generates the
- *          random placement of each of the 16 tiles.
+ *          random placement of each of the tiles.
+ *          Tiles are not components themselves; the BoardPanel lays them out
+ *          and asks each one to paint itself into its slot.
  */
 
-import javax.swing.*;
 import java.awt.*;
-import java.awt.geom.Line2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
 import java.util.Collections;
 import java.util.ArrayList;
 
-public class Tile extends JPanel
+public class Tile
 {
-  public static final long serialVersionUID=1;
+  // Maze lines are given in a 100 x 100 space and scaled to the slot size
+  public static final float TILE_SPACE = 100.0f;
+
+  private static final Color LIGHT_BLUE = new Color(176, 237, 255);
+  private static final BasicStroke LINE_STROKE = new BasicStroke(3.0f);
+
+  private BoardPanel board;
+  private int slot;
   private boolean empty;
-  private float[] lineCoordinateList;
+  private TileGeometry geometry;
   private static ArrayList<Integer> randomPlacement =
-                                                     new ArrayList<Integer>(16);
+                                                     new ArrayList<Integer>();
   private int orientation;
   private int home;
+  private Color background = LIGHT_BLUE;
+  // null when the tile has no border
+  private Color borderColor = null;
 
-  public Tile(GridBagLayout tileLayout, PanelClickListener mouseListener)
-  {
-    super(tileLayout);
-    addMouseListener(mouseListener);
-    setPreferredSize(new Dimension(100,100));
+  // The maze lines are drawn into this once and then copied to the screen on
+  // every repaint. It is redrawn when the geometry, orientation, size or
+  // screen scale changes.
+  private BufferedImage lineImage;
+  private double lineImageScale;
 
-    Color lightBlue = new Color(176, 237, 255);
-    setBackground(lightBlue);
+  public Tile(BoardPanel board, int slot)
+  {
+    this.board = board;
+    this.slot = slot;
 
     setEmpty(false);
-    setLineCoordinateList(null);
+    setGeometry(null);
     setOrientation(0);
     setHome(-1);
-
-    //Generate random placement of the 16 tiles
-    if(randomPlacement.isEmpty())
-    {
-      for(int i = 0; i < 16; i++)
-      {
-        randomPlacement.add(i);
-      }
-      shuffleRandomPlacement();
-    }
   }
 
   public boolean isEmpty()
@@ -61,29 +65,39 @@ public class Tile extends JPanel
     empty = newEmpty;
   }
 
-  public float[] getLineCoordinateList()
+  public TileGeometry getGeometry()
   {
-    return lineCoordinateList;
+    return geometry;
   }
 
-  public void setLineCoordinateList(float[] newLineCoordinateList)
+  public void setGeometry(TileGeometry newGeometry)
   {
-    if(newLineCoordinateList == null)
+    if(geometry != newGeometry)
     {
-      lineCoordinateList = null;
+      geometry = newGeometry;
+      lineImage = null;
     }
-    else 
+  }
+
+  // The lines as currently turned. The array is shared between every tile
+  // showing the same geometry and must not be changed.
+  public float[] getLineCoordinateList()
+  {
+    if(geometry == null)
     {
-      lineCoordinateList = new float[newLineCoordinateList.length];
-      for(int i = 0; i < lineCoordinateList.length; i++)
-      {
-        lineCoordinateList[i] = newLineCoordinateList[i];
-      }
+      return null;
     }
+    return geometry.getCoordinates(orientation);
   }
 
-  public static void shuffleRandomPlacement()
+  // Generates a new random placement of numTiles tiles
+  public static void shuffleRandomPlacement(int numTiles)
   {
+    randomPlacement.clear();
+    for(int i = 0; i < numTiles; i++)
+    {
+      randomPlacement.add(i);
+    }
     Collections.shuffle(randomPlacement);
   }
 
@@ -99,7 +113,11 @@ public class Tile extends JPanel
 
   public void setOrientation(int newOrientation)
   {
-    orientation = newOrientation % 4;
+    if(orientation != newOrientation % 4)
+    {
+      orientation = newOrientation % 4;
+      lineImage = null;
+    }
   }
 
   public int getHome()
@@ -112,92 +130,97 @@ public class Tile extends JPanel
     home = newHome;
   }
 
-  public void paintComponent(Graphics g)
+  // The GameState slot this tile shows
+  public int getSlot()
   {
-    super.paintComponent(g);
-    draw(g);  
+    return slot;
   }
 
-  private void draw(Graphics g)
+  public Color getBackground()
   {
-    Graphics2D g2d = (Graphics2D)g;
-    g2d.setStroke(new BasicStroke(3.0f));
+    return background;
+  }
 
-    if(lineCoordinateList == null)
-    {
-      return;
-    }
+  public void setBackground(Color newBackground)
+  {
+    background = newBackground;
+    repaint();
+  }
 
-    for(int i = 0; i < (lineCoordinateList.length / 4); i++)
-    {
-      int placeInList = i*4;
-      float point1 = lineCoordinateList[placeInList];
-      float point2 = lineCoordinateList[(placeInList+1)];
-      float point3 = lineCoordinateList[(placeInList+2)];
-      float point4 = lineCoordinateList[(placeInList+3)];
+  public Color getBorderColor()
+  {
+    return borderColor;
+  }
 
-      g2d.draw(new Line2D.Float(point1,point2,point3,point4));
-    }
+  // Pass null to remove the border
+  public void setBorderColor(Color newBorderColor)
+  {
+    borderColor = newBorderColor;
+    repaint();
   }
 
-  public void rotate90(int numberOfRotations)
+  // Asks the board to redraw just this tile's slot
+  public void repaint()
   {
-    for(int j=0; j <numberOfRotations; j++)
-    {    
-      for(int i=0;i<lineCoordinateList.length/2;i++)
-      {
-        int placeInList = i*2;
-        float x = lineCoordinateList[placeInList];
-        float y = lineCoordinateList[(placeInList+1)];
-        // subtracting offset to rotate around (50,50)
-        x= x-50;
-        y= y-50;
-        // formula for 90 rotation around origin (-y,x)
-        float tmp = x;
-        x = -1 *y;
-        y = tmp;
-        // adding back offset so points are in normal plane
-        x = x+50;
-        y = y+50; 
-        // overwrite position in coordinate list with transformed coordinate
-        lineCoordinateList[placeInList] = x;
-        lineCoordinateList[(placeInList+1)] = y; 
-      }
-      orientation = (orientation + 1) % 4;
+    board.repaintSlot(slot);
+  }
+
+  // Paints the tile into its slot on the board
+  public void paint(Graphics2D g2d, Rectangle bounds)
+  {
+    g2d.setColor(background);
+    g2d.fillRect(bounds.x, bounds.y, bounds.width, bounds.height);
+
+    draw(g2d, bounds);
+
+    if(borderColor != null)
+    {
+      g2d.setColor(borderColor);
+      g2d.drawRect(bounds.x, bounds.y, bounds.width - 1, bounds.height - 1);
     }
   }
 
-  public static float[] rotate90Math(float[] toTheoreticallyRotate, 
-                                                               int numRotations)
+  private void draw(Graphics2D g2d, Rectangle bounds)
   {
-    float[] returnArray = new float[toTheoreticallyRotate.length];
-    for(int i = 0; i < returnArray.length; i++)
+    if(geometry == null)
     {
-      returnArray[i] = toTheoreticallyRotate[i];
+      return;
     }
-    for(int j=0; j <numRotations; j++)
-    {   
-      for(int i=0;i<returnArray.length/2;i++)
-      {
-        int placeInList = i*2;
-        float x = returnArray[placeInList];
-        float y = returnArray[(placeInList+1)];
-        // subtracting offset to rotate around (50,50)
-        x= x-50;
-        y= y-50;
-        // formula for 90 rotation around origin (-y,x)
-        float tmp = x;
-        x = -1 *y;
-        y = tmp;
-        // adding back offset so points are in normal plane
-        x = x+50;
-        y = y+50; 
-        // overwrite position in coordinate list with transformed coordinate
-        returnArray[placeInList] = x;
-        returnArray[(placeInList+1)] = y; 
-      }
+
+    // Draw at the screen's resolution so the lines stay sharp when the
+    // display is scaled
+    double scale = g2d.getTransform().getScaleX();
+    int width = (int)Math.ceil(bounds.width * scale);
+    int height = (int)Math.ceil(bounds.height * scale);
+    if(width <= 0 || height <= 0)
+    {
+      return;
     }
-    return returnArray;
+
+    if(lineImage == null || lineImageScale != scale || 
+       lineImage.getWidth() != width || lineImage.getHeight() != height)
+    {
+      lineImage = new BufferedImage(width, height, 
+                                    BufferedImage.TYPE_INT_ARGB);
+      lineImageScale = scale;
+      Graphics2D imageGraphics = lineImage.createGraphics();
+      imageGraphics.setTransform(AffineTransform.getScaleInstance(
+                                            width / TILE_SPACE, 
+                                            height / TILE_SPACE));
+      imageGraphics.setColor(Color.black);
+      imageGraphics.setStroke(LINE_STROKE);
+      imageGraphics.draw(geometry.getPath(orientation));
+      imageGraphics.dispose();
+    }
+    g2d.drawImage(lineImage, bounds.x, bounds.y, bounds.width, bounds.height, 
+                  null);
+  }
+
+  // Turning only changes which of the geometry's precomputed rotations is
+  // drawn
+  public void rotate90(int numberOfRotations)
+  {
+    setOrientation(orientation + numberOfRotations);
   }
 
 };
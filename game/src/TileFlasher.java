@@ -4,29 +4,48 @@
  *                  Stephen, and Ben Wilkin)
  * Date: Apr 16, 2021
  * Purpose: Used to make a tile flash for 500 milliseconds to let the user know
- *          that they've attempted an illegal move
+ *          that they've attempted an illegal move. Run by the Animator, keyed
+ *          on the tile.
  */
 
 import java.awt.Color;
-import java.util.TimerTask;
 
-public class TileFlasher extends TimerTask
+public class TileFlasher implements Animator.Effect
 {
-  Tile selectedFirst;
-  Tile source;
-  Color backgroundCol;
+  public static final long FLASH_MILLIS = 500;
 
-  public void run()
+  private Tile tile;
+  private Color flashColor;
+  private Color backgroundCol;
+
+  public TileFlasher(Tile tile, Color flashColor)
+  {
+    this.tile = tile;
+    this.flashColor = flashColor;
+  }
+
+  @Override
+  public void start()
+  {
+    backgroundCol = tile.getBackground();
+    tile.setBackground(flashColor);
+  }
+
+  @Override
+  public boolean step(long elapsedMillis)
   {
-    selectedFirst.setBackground(backgroundCol);
-    source.setBackground(backgroundCol);
+    if(elapsedMillis < FLASH_MILLIS)
+    {
+      return true;
+    }
+    tile.setBackground(backgroundCol);
+    return false;
   }
 
-  public void helper(Tile selectedFirst, Tile source, Color backgroundCol)
+  @Override
+  public void cancel()
   {
-    this.selectedFirst = selectedFirst;
-    this.source = source;
-    this.backgroundCol = backgroundCol;
+    tile.setBackground(backgroundCol);
   }
 
-};
\ No newline at end of file
+};
@@ -0,0 +1,80 @@
+/**
+ * TileGeometry.java
+ * @author Group J (Ryan Harding, Michael Pate, Adeline Reichert, Austin
+ *                  Stephen, and Ben Wilkin)
+ * Date: Oct 18, 2026
+ * Purpose: The maze lines of one tile in all four orientations. The rotated
+ *          copies are worked out once when the tile is loaded, so turning a
+ *          tile is just a change of orientation index and never builds up
+ *          rounding error. Tiles with the same lines share one geometry
+ *          (see GeometryPool), so it is never changed once made.
+ */
+
+import java.awt.geom.Path2D;
+
+public class TileGeometry
+{
+  private float[][] rotations = new float[4][];
+  // Built the first time each orientation is drawn
+  private Path2D.Float[] paths = new Path2D.Float[4];
+
+  // coordinates are the tile's lines the right way up (orientation 0)
+  public TileGeometry(float[] coordinates)
+  {
+    rotations[0] = coordinates.clone();
+    for(int i = 1; i < 4; i++)
+    {
+      rotations[i] = rotate90(rotations[i - 1]);
+    }
+  }
+
+  // The lines turned orientation times. The array is shared and must not be
+  // changed.
+  public float[] getCoordinates(int orientation)
+  {
+    return rotations[orientation];
+  }
+
+  // All of the lines in one orientation as a single shape, so they can be
+  // drawn with one call. Shared and must not be changed.
+  public Path2D.Float getPath(int orientation)
+  {
+    if(paths[orientation] == null)
+    {
+      float[] coordinates = rotations[orientation];
+      Path2D.Float path = new Path2D.Float(Path2D.WIND_NON_ZERO, 
+                                           coordinates.length / 2);
+      for(int i = 0; i < coordinates.length / 4; i++)
+      {
+        int placeInList = i*4;
+        path.moveTo(coordinates[placeInList], coordinates[placeInList+1]);
+        path.lineTo(coordinates[placeInList+2], coordinates[placeInList+3]);
+      }
+      paths[orientation] = path;
+    }
+    return paths[orientation];
+  }
+
+  public int getNumLines()
+  {
+    return rotations[0].length / 4;
+  }
+
+  private static float[] rotate90(float[] coordinates)
+  {
+    float[] rotated = new float[coordinates.length];
+    for(int i=0;i<coordinates.length/2;i++)
+    {
+      int placeInList = i*2;
+      // subtracting offset to rotate around (50,50)
+      float x = coordinates[placeInList] - 50;
+      float y = coordinates[(placeInList+1)] - 50;
+      // formula for 90 rotation around origin (-y,x), then adding back offset
+      // so points are in normal plane
+      rotated[placeInList] = -1 * y + 50;
+      rotated[(placeInList+1)] = x + 50;
+    }
+    return rotated;
+  }
+
+};